@@ -0,0 +1,98 @@
+package org.example.tennis_api.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.tennis_api.dto.match.MatchDTO;
+import org.example.tennis_api.exceptions.ScheduleConflictException;
+import org.example.tennis_api.mapper.MatchMapper;
+import org.example.tennis_api.mapper.ModelMapperConfig;
+import org.example.tennis_api.service.LeaderboardServiceImpl;
+import org.example.tennis_api.service.MatchService;
+import org.example.tennis_api.service.MatchServiceImpl;
+import org.example.tennis_api.utilities.CollectionVersions;
+import org.example.tennis_api.utilities.LookupCache;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//conflict checks of createMatch against 100k stored matches on postgres, through the real query and indexes;
+//only compiled under the benchmark profile, run with mvn -Pbenchmark test -Dtest=BookingConflictDatabaseBenchmark
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({MatchServiceImpl.class, LeaderboardServiceImpl.class, MatchMapper.class, ModelMapperConfig.class, CollectionVersions.class,
+        LookupCache.class, SimpleMeterRegistry.class})
+class BookingConflictDatabaseBenchmark {
+
+    private static final int MATCHES = 100_000;
+    private static final int WARMUP = 1_000;
+    private static final int PROBES = 10_000;
+    private static final LocalDate FIRST_DAY = LocalDate.now().plusDays(1);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13.1-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Test
+    void conflictChecksAgainstHundredThousandMatches() {
+        jdbcTemplate.execute("""
+                insert into users (id, username, name, password, user_type, tournament_register, email, tournament_registration_status)
+                select i, 'user' || i, 'User ' || i, 'password', case when i % 10 = 0 then 'referee' else 'player' end,
+                       false, 'user' || i || '@example.com', 'NONE'
+                from generate_series(1, 20000) i
+                """);
+        jdbcTemplate.update("""
+                insert into matches (id, name, match_date, match_time, location, referee_id, player1_id, player2_id)
+                select i, 'Match ' || i, ?::date + (i % 3650), time '08:00' + (i % 10) * interval '1 hour',
+                       'Court ' || (i % 997), (i % 2000) * 10 + 10, (i * 7) % 20000 + 1, (i * 13) % 20000 + 1
+                from generate_series(1, ?) i
+                """, FIRST_DAY, MATCHES);
+        jdbcTemplate.execute("select setval('users_id_seq', 20000), setval('matches_id_seq', " + MATCHES + ")");
+        jdbcTemplate.execute("analyze users");
+        jdbcTemplate.execute("analyze matches");
+
+        for (int i = 0; i < WARMUP; i++) {
+            probe(ThreadLocalRandom.current().nextInt(1, MATCHES + 1));
+        }
+        long[] nanos = new long[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            int match = ThreadLocalRandom.current().nextInt(1, MATCHES + 1);
+            long start = System.nanoTime();
+            probe(match);
+            nanos[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(nanos);
+        System.out.printf("conflict check against %d matches: mean %.1f us, p50 %.1f us, p99 %.1f us%n", MATCHES,
+                Arrays.stream(nanos).average().orElse(0) / 1000, nanos[PROBES / 2] / 1000.0, nanos[PROBES * 99 / 100] / 1000.0);
+    }
+
+    //books player1 of the given seeded match into the same slot on another court, which always clashes
+    private void probe(int match) {
+        MatchDTO matchDTO = new MatchDTO("probe", FIRST_DAY.plusDays(match % 3650), LocalTime.of(8 + match % 10, 0), "Court x",
+                null, (match * 7) % 20000 + 1, null, null, null);
+        ScheduleConflictException e = assertThrows(ScheduleConflictException.class, () -> matchService.createMatch(matchDTO));
+        assertTrue(e.getMessage().startsWith("Player "), e.getMessage());
+    }
+}
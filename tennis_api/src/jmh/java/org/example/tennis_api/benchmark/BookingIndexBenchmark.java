@@ -0,0 +1,50 @@
+package org.example.tennis_api.benchmark;
+
+import org.example.tennis_api.utilities.BookingIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+//one conflict lookup of a batch write against an index already holding the given number of bookings
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingIndexBenchmark {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 1);
+
+    @Param({"10000", "100000"})
+    private int bookings;
+
+    private BookingIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new BookingIndex();
+        for (int i = 0; i < bookings; i++) {
+            index.add(i, DATE.plusDays(i % 3650), LocalTime.of(8 + i % 10, 0), "Court " + i % 997, 1_000_000 + i % 2000, i, null);
+        }
+    }
+
+    @Benchmark
+    public String findConflict() {
+        int i = ThreadLocalRandom.current().nextInt(bookings);
+        return index.findConflict(null, DATE.plusDays(i % 3650), LocalTime.of(8 + i % 10, 0), "Court x", null, i, null);
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.tennis_api.benchmark;
+
+import org.example.tennis_api.entity.Match;
+import org.example.tennis_api.entity.User;
+import org.example.tennis_api.utilities.CsvExportStrategy;
+import org.example.tennis_api.utilities.TxtExportStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+//the row encoder behind the export strategies against the String.format rows they replaced
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ExportBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    private int rows;
+
+    private List<Match> matches;
+
+    @Setup
+    public void setUp() {
+        User referee = user("Referee, Senior");
+        User player1 = user("Player One");
+        User player2 = user("Player \"Two\"");
+        matches = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Match match = new Match();
+            match.setName("Match " + i);
+            match.setMatchDate(LocalDate.of(2030, 1, 1).plusDays(i % 365));
+            match.setMatchTime(LocalTime.of(8 + i % 12, 0));
+            match.setLocation("Court " + i % 8);
+            match.setReferee(referee);
+            match.setPlayer1(player1);
+            match.setPlayer2(player2);
+            match.setPlayer1Score(i % 7);
+            match.setPlayer2Score(i % 5);
+            matches.add(match);
+        }
+    }
+
+    @Benchmark
+    public void csvEncoder() throws IOException {
+        new CsvExportStrategy().export(matches.stream(), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void csvFormat() throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(OutputStream.nullOutputStream()));
+        writer.write("Name,Match Date,Match Time,Location,Referee,Player 1,Player 1 Score,Player 2,Player 2 Score\n");
+        for (Match match : matches) {
+            writer.write(String.format("%s,%s,%s,%s,%s,%s,%d,%s,%d\n",
+                    match.getName(), match.getMatchDate(), match.getMatchTime(), match.getLocation(),
+                    match.getReferee().getName(), match.getPlayer1().getName(), match.getPlayer1Score(),
+                    match.getPlayer2().getName(), match.getPlayer2Score()));
+        }
+        writer.flush();
+    }
+
+    @Benchmark
+    public void txtEncoder() throws IOException {
+        new TxtExportStrategy().export(matches.stream(), OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void txtFormat() throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(OutputStream.nullOutputStream()));
+        for (Match match : matches) {
+            writer.write(String.format("Match: %s\nDate: %s\nTime: %s\nLocation: %s\nReferee: %s\nPlayer 1: %s\nScore: %d\nPlayer 2: %s\nScore: %d\n\n",
+                    match.getName(), match.getMatchDate(), match.getMatchTime(), match.getLocation(),
+                    match.getReferee().getName(), match.getPlayer1().getName(), match.getPlayer1Score(),
+                    match.getPlayer2().getName(), match.getPlayer2Score()));
+        }
+        writer.flush();
+    }
+
+    private static User user(String name) {
+        User user = new User();
+        user.setName(name);
+        return user;
+    }
+}
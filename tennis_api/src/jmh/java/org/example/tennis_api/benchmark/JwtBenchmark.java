@@ -0,0 +1,55 @@
+package org.example.tennis_api.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.example.tennis_api.security.JwtClaims;
+import org.example.tennis_api.security.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+//one authenticated request: the four parser builds and verifications the filter used to run against parseAndVerify
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        token = jwtUtil.generateToken(1, "player", "player");
+    }
+
+    @Benchmark
+    public void parsePerClaim(Blackhole blackhole) {
+        blackhole.consume(parse().getSubject());
+        blackhole.consume(parse().get("id", Integer.class));
+        blackhole.consume(parse().get("userType", String.class));
+        blackhole.consume(parse().getExpiration());
+    }
+
+    @Benchmark
+    public JwtClaims parseAndVerify() {
+        return jwtUtil.parseAndVerify(token);
+    }
+
+    private Claims parse() {
+        return Jwts.parser().verifyWith(jwtUtil.getKey()).build().parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.tennis_api.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//closed loop load against a running server, every client alternates a login (bcrypt and jdbc) with a match listing (jdbc);
+//run it once against a server started with VIRTUAL_THREADS_ENABLED=false and once with true to compare the two modes:
+//mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=org.example.tennis_api.benchmark.LoadTest -Dbenchmark="http://localhost:8081 400 60 virtual"
+public class LoadTest {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private record Sample(String endpoint, int status, long nanos) {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8081";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+        String label = args.length > 3 ? args[3] : "run";
+
+        HttpClient httpClient = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String username = "loadtest-" + UUID.randomUUID();
+        String credentials = objectMapper.writeValueAsString(Map.of("username", username, "password", "loadtest"));
+        send(httpClient, post(baseUrl + "/api/user/register", objectMapper.writeValueAsString(Map.of("username", username,
+                "password", "loadtest", "email", username + "@example.com", "name", username, "userTypeCode", "player"))));
+        HttpResponse<String> login = send(httpClient, post(baseUrl + "/api/user/login", credentials));
+        if (login.statusCode() != 200) {
+            throw new IllegalStateException("Login of the load test user failed with " + login.statusCode() + ": " + login.body());
+        }
+        String token = objectMapper.readTree(login.body()).get("token").asText();
+        HttpRequest listMatches = HttpRequest.newBuilder(URI.create(baseUrl + "/api/match/all"))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET().build();
+        HttpRequest loginUser = post(baseUrl + "/api/user/login", credentials);
+
+        //the first fifth of the run warms the server up and is not recorded
+        long warmupEnd = System.nanoTime() + Duration.ofSeconds(seconds).toNanos() / 5;
+        long end = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<List<Sample>> perClient = new ArrayList<>();
+        AtomicInteger failures = new AtomicInteger();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                List<Sample> samples = new ArrayList<>();
+                perClient.add(samples);
+                executor.submit(() -> {
+                    boolean listing = false;
+                    while (System.nanoTime() < end) {
+                        HttpRequest request = listing ? listMatches : loginUser;
+                        long start = System.nanoTime();
+                        int status;
+                        try {
+                            status = send(httpClient, request).statusCode();
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                            status = -1;
+                        }
+                        if (start >= warmupEnd) {
+                            samples.add(new Sample(listing ? "GET /api/match/all" : "POST /api/user/login", status, System.nanoTime() - start));
+                        }
+                        listing = !listing;
+                    }
+                });
+            }
+        }
+
+        List<Sample> samples = perClient.stream().flatMap(List::stream).toList();
+        double measuredSeconds = seconds * 0.8;
+        System.out.printf("%s: %d clients for %ds against %s, %.1f requests/s, %d transport failures%n",
+                label, clients, seconds, baseUrl, samples.size() / measuredSeconds, failures.get());
+        for (String endpoint : List.of("POST /api/user/login", "GET /api/match/all")) {
+            List<Sample> ofEndpoint = samples.stream().filter(s -> s.endpoint().equals(endpoint)).toList();
+            long[] nanos = ofEndpoint.stream().mapToLong(Sample::nanos).sorted().toArray();
+            long ok = ofEndpoint.stream().filter(s -> s.status() >= 200 && s.status() < 400).count();
+            long shed = ofEndpoint.stream().filter(s -> s.status() == 429).count();
+            System.out.printf("  %-22s %8.1f req/s  p50 %8.1f ms  p99 %8.1f ms  ok %d  429 %d  other %d%n",
+                    endpoint, ofEndpoint.size() / measuredSeconds, percentile(nanos, 50), percentile(nanos, 99),
+                    ok, shed, ofEndpoint.size() - ok - shed);
+        }
+    }
+
+    private static HttpRequest post(String url, String body) {
+        return HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static HttpResponse<String> send(HttpClient httpClient, HttpRequest request) throws Exception {
+        return httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static double percentile(long[] sortedNanos, int percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        return sortedNanos[Math.min(sortedNanos.length - 1, sortedNanos.length * percentile / 100)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.tennis_api.benchmark;
+
+import org.example.tennis_api.utilities.SlotScheduler;
+import org.example.tennis_api.utilities.TournamentDraw;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+//drawing and scheduling a whole tournament, the part of generateTournament that runs before the batch insert
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TournamentDrawBenchmark {
+
+    private static final LocalDate START = LocalDate.of(2030, 6, 1);
+    private static final LocalTime FIRST_MATCH = LocalTime.of(9, 0);
+
+    @Param({"1000", "4096"})
+    private int players;
+
+    @Param({"5", "32"})
+    private int groupSize;
+
+    private List<Integer> seeds;
+    private List<Integer> referees;
+    private List<String> courts;
+
+    @Setup
+    public void setUp() {
+        seeds = IntStream.rangeClosed(1, players).boxed().toList();
+        referees = IntStream.rangeClosed(100001, 100040).boxed().toList();
+        courts = IntStream.rangeClosed(1, 16).mapToObj(i -> "Court " + i).toList();
+    }
+
+    @Benchmark
+    public int knockout() {
+        return schedule(TournamentDraw.knockout("Cup", seeds));
+    }
+
+    @Benchmark
+    public int roundRobin() {
+        return schedule(TournamentDraw.roundRobin("League", seeds, groupSize));
+    }
+
+    private int schedule(List<List<TournamentDraw.Pairing>> rounds) {
+        SlotScheduler scheduler = new SlotScheduler(START, FIRST_MATCH, 90, 8, courts, referees);
+        int bookings = 0;
+        for (List<TournamentDraw.Pairing> round : rounds) {
+            bookings += scheduler.scheduleRound(round).size();
+        }
+        return bookings;
+    }
+}
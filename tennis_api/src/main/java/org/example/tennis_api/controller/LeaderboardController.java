@@ -0,0 +1,36 @@
+package org.example.tennis_api.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.tennis_api.dto.match.LeaderboardEntryDTO;
+import org.example.tennis_api.service.LeaderboardService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/leaderboard")
+@RequiredArgsConstructor
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    //administrator, player and referee
+    @GetMapping
+    @PreAuthorize("hasAnyRole('ADMINISTRATOR', 'PLAYER', 'REFEREE')")
+    public ResponseEntity<List<LeaderboardEntryDTO>> getLeaderboard(@RequestParam(required = false) Integer page,
+                                                                    @RequestParam(required = false) Integer size) {
+        List<LeaderboardEntryDTO> entries = leaderboardService.findLeaderboard(page, size);
+        return ResponseEntity.ok(entries);
+    }
+
+    //administrator, player and referee
+    @GetMapping("/player")
+    @PreAuthorize("hasAnyRole('ADMINISTRATOR', 'PLAYER', 'REFEREE')")
+    public ResponseEntity<LeaderboardEntryDTO> getPlayerRank(@RequestParam Integer playerId) {
+        LeaderboardEntryDTO entry = leaderboardService.findPlayerRank(playerId);
+        return ResponseEntity.ok(entry);
+    }
+}
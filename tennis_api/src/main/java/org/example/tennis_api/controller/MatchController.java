@@ -2,19 +2,24 @@ package org.example.tennis_api.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.example.tennis_api.dto.match.MatchDTO;
+import org.example.tennis_api.dto.match.MatchPageDTO;
+import org.example.tennis_api.dto.match.MatchSummaryDTO;
 import org.example.tennis_api.entity.Match;
+import org.example.tennis_api.service.LiveScoreService;
 import org.example.tennis_api.service.MatchService;
+import org.example.tennis_api.utilities.CollectionVersions;
 import org.example.tennis_api.utilities.CsvExportStrategy;
 import org.example.tennis_api.utilities.MatchExportStrategy;
 import org.example.tennis_api.utilities.TxtExportStrategy;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PostAuthorize;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.ByteArrayOutputStream;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -26,6 +31,8 @@ import java.util.Map;
 public class MatchController {
 
     private final MatchService matchService;
+    private final LiveScoreService liveScoreService;
+    private final CollectionVersions collectionVersions;
 
     //administrator only
     @PostMapping("/create")
@@ -35,6 +42,14 @@ public class MatchController {
         return ResponseEntity.ok(match);
     }
 
+    //administrator only
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('ADMINISTRATOR')")
+    public ResponseEntity<List<MatchSummaryDTO>> createMatches(@RequestBody List<MatchDTO> matchDTOs) {
+        List<MatchSummaryDTO> matches = matchService.createMatches(matchDTOs);
+        return ResponseEntity.ok(matches);
+    }
+
     //administrator only
     @PutMapping("/match/register")
     @PreAuthorize("hasRole('ADMINISTRATOR')")
@@ -43,36 +58,72 @@ public class MatchController {
         return ResponseEntity.ok(match);
     }
 
-    //administrator only
+    //administrator, player and referee, answers 304 from the collection version without reading matches
     @GetMapping("/all")
     @PreAuthorize("hasAnyRole('ADMINISTRATOR', 'PLAYER', 'REFEREE')")
-    public ResponseEntity<List<Match>> getAllMatches() {
-        List<Match> matches = matchService.findAllMatches();
-        return ResponseEntity.ok(matches);
+    public ResponseEntity<List<MatchSummaryDTO>> getAllMatches(WebRequest request) {
+        CollectionVersions.Snapshot version = collectionVersions.current(CollectionVersions.MATCHES);
+        if (request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
+        List<MatchSummaryDTO> matches = matchService.findAllMatches();
+        return ResponseEntity.ok().eTag(version.etag()).lastModified(version.lastModified()).body(matches);
     }
 
-    //referee and administrator only but checks for id to match token one
+    //administrator, player and referee, keyset paginated
+    @GetMapping("/all/page")
+    @PreAuthorize("hasAnyRole('ADMINISTRATOR', 'PLAYER', 'REFEREE')")
+    public ResponseEntity<MatchPageDTO> getAllMatchesPage(@RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer size,
+                                                          @RequestParam(required = false) String direction) {
+        MatchPageDTO page = matchService.findMatchesPage(null, null, null, null, null, cursor, size, direction);
+        return ResponseEntity.ok(page);
+    }
+
+    //referee and administrator only, the referee check reads only the match's referee id
     @GetMapping("/matchId")
-    @PostAuthorize("hasRole('ADMINISTRATOR') or (hasRole('REFEREE') and returnObject.body.referee.id == authentication.principal.id)")
+    @PreAuthorize("hasRole('ADMINISTRATOR') or (hasRole('REFEREE') and @matchOwnership.isReferee(#id, authentication.principal.id))")
     public ResponseEntity<Match> getMatchById(@RequestParam Integer id) {
         Match match = matchService.findMatchById(id);
         return ResponseEntity.ok(match);
     }
 
+    //administrator, player and referee, server-sent events for one match
+    @GetMapping(value = "/live/match", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMINISTRATOR', 'PLAYER', 'REFEREE')")
+    public SseEmitter subscribeToMatch(@RequestParam Integer matchId) {
+        return liveScoreService.subscribeToMatch(matchId);
+    }
+
+    //administrator, player and referee, server-sent events for every match of a player
+    @GetMapping(value = "/live/player", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ADMINISTRATOR', 'PLAYER', 'REFEREE')")
+    public SseEmitter subscribeToPlayer(@RequestParam Integer playerId) {
+        return liveScoreService.subscribeToPlayer(playerId);
+    }
+
     //referee only but checks for id to match token one
     @GetMapping("/ref")
     @PreAuthorize("hasRole('REFEREE') and (#ref == authentication.principal.id)")
-    public ResponseEntity<List<Match>> getMatchByRef(@RequestParam Integer ref) throws Exception {
-        List<Match> matches = matchService.findAllMatchesByRefereeId(ref);
-        return ResponseEntity.ok(matches);
+    public ResponseEntity<List<MatchSummaryDTO>> getMatchByRef(@RequestParam Integer ref, WebRequest request) throws Exception {
+        CollectionVersions.Snapshot version = collectionVersions.current(CollectionVersions.MATCHES, CollectionVersions.USERS);
+        if (request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
+        List<MatchSummaryDTO> matches = matchService.findAllMatchesByRefereeId(ref);
+        return ResponseEntity.ok().eTag(version.etag()).lastModified(version.lastModified()).body(matches);
     }
 
     //player only but checks for id to match token one
     @GetMapping("/player")
     @PreAuthorize("hasRole('PLAYER') and #playerId == authentication.principal.id")
-    public ResponseEntity<List<Match>> getMatchesByPlayerId(@RequestParam Integer playerId) {
-        List<Match> matches = matchService.findAllMatchesByPlayerId(playerId);
-        return ResponseEntity.ok(matches);
+    public ResponseEntity<List<MatchSummaryDTO>> getMatchesByPlayerId(@RequestParam Integer playerId, WebRequest request) {
+        CollectionVersions.Snapshot version = collectionVersions.current(CollectionVersions.MATCHES, CollectionVersions.USERS);
+        if (request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
+        List<MatchSummaryDTO> matches = matchService.findAllMatchesByPlayerId(playerId);
+        return ResponseEntity.ok().eTag(version.etag()).lastModified(version.lastModified()).body(matches);
     }
 
     //administrator only
@@ -101,7 +152,7 @@ public class MatchController {
 
     //referee only, checks for referee attribute of match to be updated to match id of user
     @PutMapping("/match/score")
-    @PreAuthorize("hasRole('REFEREE') and @matchServiceImpl.findMatchRef(#matchId) == authentication.principal.id")
+    @PreAuthorize("hasRole('REFEREE') and @matchOwnership.isReferee(#matchId, authentication.principal.id)")
     public ResponseEntity<Match> updateMatchScore(@RequestParam Integer matchId, @RequestBody Map<String, Integer> scoreData) throws Exception {
         Integer player1Score = scoreData.getOrDefault("player1Score", null);
         Integer player2Score = scoreData.getOrDefault("player2Score", null);
@@ -113,35 +164,49 @@ public class MatchController {
     //administrator and referee only
     @GetMapping("/filter/matches")
     @PreAuthorize("hasAnyRole('ADMINISTRATOR', 'REFEREE')")
-    public ResponseEntity<List<Match>> filterMatches(@RequestParam(required = false) LocalDate startDate,
-                                                     @RequestParam(required = false) LocalDate endDate,
-                                                     @RequestParam(required = false) String location,
-                                                     @RequestParam(required = false) Integer refereeId,
-                                                     @RequestParam(required = false) Integer playerId) {
+    public ResponseEntity<List<MatchSummaryDTO>> filterMatches(@RequestParam(required = false) LocalDate startDate,
+                                                               @RequestParam(required = false) LocalDate endDate,
+                                                               @RequestParam(required = false) String location,
+                                                               @RequestParam(required = false) Integer refereeId,
+                                                               @RequestParam(required = false) Integer playerId) {
 
-        List<Match> matches = matchService.findMatches(startDate, endDate, location, refereeId, playerId);
+        List<MatchSummaryDTO> matches = matchService.findMatches(startDate, endDate, location, refereeId, playerId);
         return ResponseEntity.ok(matches);
     }
 
+    //administrator and referee only, keyset paginated
+    @GetMapping("/filter/matches/page")
+    @PreAuthorize("hasAnyRole('ADMINISTRATOR', 'REFEREE')")
+    public ResponseEntity<MatchPageDTO> filterMatchesPage(@RequestParam(required = false) LocalDate startDate,
+                                                          @RequestParam(required = false) LocalDate endDate,
+                                                          @RequestParam(required = false) String location,
+                                                          @RequestParam(required = false) Integer refereeId,
+                                                          @RequestParam(required = false) Integer playerId,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer size,
+                                                          @RequestParam(required = false) String direction) {
+
+        MatchPageDTO page = matchService.findMatchesPage(startDate, endDate, location, refereeId, playerId, cursor, size, direction);
+        return ResponseEntity.ok(page);
+    }
+
     //administrator only
     @GetMapping("/export")
     @PreAuthorize("hasRole('ADMINISTRATOR')")
-    public ResponseEntity<byte[]> exportMatches(
+    public ResponseEntity<StreamingResponseBody> exportMatches(
             @RequestParam(required = false) LocalDate startDate,
             @RequestParam(required = false) LocalDate endDate,
             @RequestParam(required = false) String location,
             @RequestParam(required = false) Integer refereeId,
             @RequestParam(required = false) Integer playerId,
-            @RequestParam String format) throws Exception {
+            @RequestParam String format) {
 
-        List<Match> matches = matchService.findMatches(startDate, endDate, location, refereeId, playerId);
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
         MatchExportStrategy strategy = format.equals("csv") ? new CsvExportStrategy() : new TxtExportStrategy();
-        matchService.exportMatches(matches, outputStream, strategy);
-        byte[] data = outputStream.toByteArray();
+        StreamingResponseBody body = outputStream ->
+                matchService.exportMatches(startDate, endDate, location, refereeId, playerId, outputStream, strategy);
         return ResponseEntity.ok()
                 .contentType(format.equals("csv") ? MediaType.valueOf("text/csv") : MediaType.valueOf("text/plain"))
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"matches." + format + "\"")
-                .body(data);
+                .body(body);
     }
 }
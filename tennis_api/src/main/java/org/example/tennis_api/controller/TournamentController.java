@@ -0,0 +1,28 @@
+package org.example.tennis_api.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.tennis_api.dto.match.MatchSummaryDTO;
+import org.example.tennis_api.dto.match.TournamentDTO;
+import org.example.tennis_api.service.TournamentService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@CrossOrigin
+@RestController
+@RequestMapping("/api/tournament")
+@RequiredArgsConstructor
+public class TournamentController {
+
+    private final TournamentService tournamentService;
+
+    //administrator only, draws and schedules every match for the registered players
+    @PostMapping("/generate")
+    @PreAuthorize("hasRole('ADMINISTRATOR')")
+    public ResponseEntity<List<MatchSummaryDTO>> generateTournament(@RequestBody TournamentDTO tournamentDTO) {
+        List<MatchSummaryDTO> matches = tournamentService.generateTournament(tournamentDTO);
+        return ResponseEntity.ok(matches);
+    }
+}
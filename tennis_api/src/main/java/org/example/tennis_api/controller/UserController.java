@@ -2,16 +2,24 @@ package org.example.tennis_api.controller;
 
 import lombok.RequiredArgsConstructor;
 import org.example.tennis_api.dto.user.UserDTO;
+import org.example.tennis_api.dto.user.UserImportResultDTO;
 import org.example.tennis_api.dto.user.UserSignInDTO;
 import org.example.tennis_api.dto.user.UserSignUpDTO;
 import org.example.tennis_api.dto.user.UserUpdateCredentialsDTO;
 import org.example.tennis_api.entity.User;
 import org.example.tennis_api.security.JwtUtil;
+import org.example.tennis_api.service.UserImportService;
 import org.example.tennis_api.service.UserService;
+import org.example.tennis_api.utilities.CollectionVersions;
+import org.example.tennis_api.utilities.CsvImportStrategy;
+import org.example.tennis_api.utilities.JsonImportStrategy;
+import org.example.tennis_api.utilities.UserImportStrategy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -23,6 +31,8 @@ import java.util.Map;
 public class UserController {
 
     private final UserService userService;
+    private final UserImportService userImportService;
+    private final CollectionVersions collectionVersions;
     private final JwtUtil jwtUtil;
 
     //permitted for all
@@ -53,12 +63,16 @@ public class UserController {
         return ResponseEntity.ok(updatedUser);
     }
 
-    //administrator only
+    //administrator only, answers 304 from the collection version without reading users
     @GetMapping("/all")
     @PreAuthorize("hasRole('ADMINISTRATOR')")
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<List<User>> getAllUsers(WebRequest request) {
+        CollectionVersions.Snapshot version = collectionVersions.current(CollectionVersions.USERS);
+        if (request.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
         List<User> users = userService.findAllUsers();
-        return ResponseEntity.ok(users);
+        return ResponseEntity.ok().eTag(version.etag()).lastModified(version.lastModified()).body(users);
     }
 
     //administrator only
@@ -133,6 +147,15 @@ public class UserController {
         return ResponseEntity.ok(registeredUser);
     }
 
+    //administrator only, streams a csv or json roster and reports rejected rows
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('ADMINISTRATOR')")
+    public ResponseEntity<UserImportResultDTO> importUsers(@RequestParam String format, InputStream body) throws Exception {
+        UserImportStrategy strategy = format.equals("json") ? new JsonImportStrategy() : new CsvImportStrategy();
+        UserImportResultDTO result = userImportService.importUsers(body, strategy);
+        return ResponseEntity.ok(result);
+    }
+
     //administrator only
     @PutMapping("/id")
     @PreAuthorize("hasRole('ADMINISTRATOR')")
@@ -141,6 +164,14 @@ public class UserController {
         return ResponseEntity.ok(updatedUser);
     }
 
+    //administrator only, fields left out of the body are kept
+    @PatchMapping("/id")
+    @PreAuthorize("hasRole('ADMINISTRATOR')")
+    public ResponseEntity<User> patchUser(@RequestBody UserDTO userDTO, @RequestParam Integer id) {
+        User updatedUser = userService.patchUser(userDTO, id);
+        return ResponseEntity.ok(updatedUser);
+    }
+
     //administrator only
     @DeleteMapping("/id")
     @PreAuthorize("hasRole('ADMINISTRATOR')")
@@ -154,8 +185,10 @@ public class UserController {
     @PreAuthorize("hasRole('ADMINISTRATOR') or hasRole('REFEREE')")
     public ResponseEntity<List<User>> filterUsers(@RequestParam(required = false) String name,
                                                   @RequestParam(required = false) String username,
-                                                  @RequestParam(required = false) Boolean isCompeting) {
-        List<User> users = userService.filterUsers(name, username, isCompeting);
+                                                  @RequestParam(required = false) Boolean isCompeting,
+                                                  @RequestParam(required = false) Integer page,
+                                                  @RequestParam(required = false) Integer size) {
+        List<User> users = userService.filterUsers(name, username, isCompeting, page, size);
         return ResponseEntity.ok(users);
     }
 }
@@ -0,0 +1,29 @@
+package org.example.tennis_api.dto.match;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaderboardEntryDTO {
+    private Long rank;
+    private Integer playerId;
+    private String name;
+    private Integer matchesPlayed;
+    private Integer wins;
+    private Integer losses;
+    private Integer draws;
+    private Integer pointsFor;
+    private Integer pointsAgainst;
+    private Integer pointDifference;
+
+    //rank is filled in by the service once the position is known
+    public LeaderboardEntryDTO(Integer playerId, String name, Integer matchesPlayed, Integer wins, Integer losses, Integer draws,
+                               Integer pointsFor, Integer pointsAgainst, Integer pointDifference) {
+        this(null, playerId, name, matchesPlayed, wins, losses, draws, pointsFor, pointsAgainst, pointDifference);
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.tennis_api.dto.match;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class MatchPageDTO {
+    private List<MatchSummaryDTO> matches;
+    private String nextCursor;
+}
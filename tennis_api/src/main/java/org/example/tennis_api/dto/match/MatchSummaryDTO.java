@@ -0,0 +1,49 @@
+package org.example.tennis_api.dto.match;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.example.tennis_api.entity.Match;
+import org.example.tennis_api.entity.User;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class MatchSummaryDTO {
+    private Integer id;
+    private String name;
+    private LocalDate matchDate;
+    private LocalTime matchTime;
+    private String location;
+    private ParticipantDTO referee;
+    private ParticipantDTO player1;
+    private Integer player1Score;
+    private ParticipantDTO player2;
+    private Integer player2Score;
+
+    //flat column list used by JPQL and criteria constructor expressions
+    public MatchSummaryDTO(Integer id, String name, LocalDate matchDate, LocalTime matchTime, String location,
+                           Integer refereeId, String refereeName,
+                           Integer player1Id, String player1Name, Integer player1Score,
+                           Integer player2Id, String player2Name, Integer player2Score) {
+        this(id, name, matchDate, matchTime, location,
+                ParticipantDTO.of(refereeId, refereeName),
+                ParticipantDTO.of(player1Id, player1Name), player1Score,
+                ParticipantDTO.of(player2Id, player2Name), player2Score);
+    }
+
+    public static MatchSummaryDTO of(Match match) {
+        return new MatchSummaryDTO(match.getId(), match.getName(), match.getMatchDate(), match.getMatchTime(), match.getLocation(),
+                participant(match.getReferee()), participant(match.getPlayer1()), match.getPlayer1Score(),
+                participant(match.getPlayer2()), match.getPlayer2Score());
+    }
+
+    private static ParticipantDTO participant(User user) {
+        return user == null ? null : new ParticipantDTO(user.getId(), user.getName());
+    }
+}
@@ -0,0 +1,19 @@
+package org.example.tennis_api.dto.match;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ParticipantDTO {
+    private Integer id;
+    private String name;
+
+    public static ParticipantDTO of(Integer id, String name) {
+        return id == null ? null : new ParticipantDTO(id, name);
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.tennis_api.dto.match;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class TournamentDTO {
+    private String name;
+    private String format;
+    private Integer groupSize;
+    private LocalDate startDate;
+    private LocalTime firstMatchTime;
+    private Integer slotMinutes;
+    private Integer slotsPerDay;
+    private List<String> courts;
+}
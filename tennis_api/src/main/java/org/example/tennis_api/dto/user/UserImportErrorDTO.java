@@ -0,0 +1,16 @@
+package org.example.tennis_api.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportErrorDTO {
+    private Integer row;
+    private String username;
+    private String message;
+}
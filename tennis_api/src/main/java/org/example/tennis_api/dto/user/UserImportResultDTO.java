@@ -0,0 +1,17 @@
+package org.example.tennis_api.dto.user;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class UserImportResultDTO {
+    private Integer imported;
+    private List<UserImportErrorDTO> errors;
+}
@@ -15,12 +15,22 @@ import java.time.LocalTime;
 @Entity
 @NoArgsConstructor
 @Table(name = "matches")
+@NamedEntityGraph(name = "Match.participants", attributeNodes = {
+        @NamedAttributeNode("referee"),
+        @NamedAttributeNode("player1"),
+        @NamedAttributeNode("player2")
+})
 public class Match {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "matches_id_seq")
+    @SequenceGenerator(name = "matches_id_seq", sequenceName = "matches_id_seq", allocationSize = 50)
     @Column(name = "id", nullable = false)
     private Integer id;
 
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @Column(name = "name", nullable = false)
     private String name;
 
@@ -33,12 +43,12 @@ public class Match {
     @Column(name = "location", nullable = false)
     private String location;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "referee_id")
     @OnDelete(action = OnDeleteAction.SET_NULL)
     private User referee;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "player1_id")
     @OnDelete(action = OnDeleteAction.SET_NULL)
     private User player1;
@@ -46,7 +56,7 @@ public class Match {
     @Column(name = "player1_score")
     private Integer player1Score;
 
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "player2_id")
     @OnDelete(action = OnDeleteAction.SET_NULL)
     private User player2;
@@ -0,0 +1,43 @@
+package org.example.tennis_api.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@Table(name = "notification_outbox")
+public class NotificationOutbox {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "recipient", nullable = false)
+    private String recipient;
+
+    @Column(name = "subject", nullable = false)
+    private String subject;
+
+    @Column(name = "body", nullable = false, columnDefinition = "text")
+    private String body;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    //claimed rows and rows backing off after a failure are skipped until then
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    //set once the row has failed too often, parked rows are kept for inspection but never sent again
+    @Column(name = "parked_at")
+    private LocalDateTime parkedAt;
+}
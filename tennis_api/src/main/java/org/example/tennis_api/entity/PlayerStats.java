@@ -0,0 +1,38 @@
+package org.example.tennis_api.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@NoArgsConstructor
+@Table(name = "player_stats")
+public class PlayerStats {
+    @Id
+    @Column(name = "player_id", nullable = false)
+    private Integer playerId;
+
+    @Column(name = "matches_played", nullable = false)
+    private Integer matchesPlayed;
+
+    @Column(name = "wins", nullable = false)
+    private Integer wins;
+
+    @Column(name = "losses", nullable = false)
+    private Integer losses;
+
+    @Column(name = "draws", nullable = false)
+    private Integer draws;
+
+    @Column(name = "points_for", nullable = false)
+    private Integer pointsFor;
+
+    @Column(name = "points_against", nullable = false)
+    private Integer pointsAgainst;
+
+    @Column(name = "point_difference", nullable = false)
+    private Integer pointDifference;
+}
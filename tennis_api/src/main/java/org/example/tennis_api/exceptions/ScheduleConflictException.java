@@ -0,0 +1,9 @@
+package org.example.tennis_api.exceptions;
+
+//a referee, player or court is already booked at the requested slot, answered with 409
+public class ScheduleConflictException extends RuntimeException {
+
+    public ScheduleConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.tennis_api.exceptions;
+
+import java.time.Duration;
+
+//answered with 429 and a Retry-After header
+public class TooManyRequestsException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public TooManyRequestsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -1,14 +1,57 @@
 package org.example.tennis_api.repository;
 
+import org.example.tennis_api.dto.match.MatchSummaryDTO;
 import org.example.tennis_api.entity.Match;
 import org.example.tennis_api.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface MatchRepository extends JpaRepository<Match, Integer> {
-    List<Match> findByReferee(User referee);
-    List<Match> findByPlayer1OrPlayer2(User player1, User player2);
+public interface MatchRepository extends JpaRepository<Match, Integer>, JpaSpecificationExecutor<Match>, MatchRepositoryCustom {
+
+    String SUMMARY_SELECT = "select new org.example.tennis_api.dto.match.MatchSummaryDTO(" +
+            "m.id, m.name, m.matchDate, m.matchTime, m.location, r.id, r.name, " +
+            "p1.id, p1.name, m.player1Score, p2.id, p2.name, m.player2Score) " +
+            "from Match m left join m.referee r left join m.player1 p1 left join m.player2 p2";
+    @Override
+    @EntityGraph("Match.participants")
+    Optional<Match> findById(Integer id);
+
+    @Query(SUMMARY_SELECT)
+    List<MatchSummaryDTO> findAllSummaries();
+
+    @Query(SUMMARY_SELECT + " where r.id = :refereeId")
+    List<MatchSummaryDTO> findSummariesByRefereeId(@Param("refereeId") Integer refereeId);
+
+    @Query(SUMMARY_SELECT + " where p1.id = :playerId or p2.id = :playerId")
+    List<MatchSummaryDTO> findSummariesByPlayerId(@Param("playerId") Integer playerId);
+
+    //reads the referee_id column through the primary key, no join and no entity loaded
+    @Query("select m.referee.id from Match m where m.id = :id")
+    Optional<Integer> findRefereeIdById(@Param("id") Integer id);
+
+    //conditional writes, each one only lands on the version the caller read, 0 rows means someone else got there first
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Match m set m.player1Score = :player1Score, m.player2Score = :player2Score, m.version = m.version + 1 " +
+            "where m.id = :id and m.version = :version")
+    int updateScore(@Param("id") Integer id, @Param("version") Long version,
+                    @Param("player1Score") Integer player1Score, @Param("player2Score") Integer player2Score);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Match m set m.player1 = :player, m.version = m.version + 1 " +
+            "where m.id = :id and m.version = :version and m.player1 is null")
+    int claimPlayer1Slot(@Param("id") Integer id, @Param("version") Long version, @Param("player") User player);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Match m set m.player2 = :player, m.version = m.version + 1 " +
+            "where m.id = :id and m.version = :version and m.player2 is null")
+    int claimPlayer2Slot(@Param("id") Integer id, @Param("version") Long version, @Param("player") User player);
 }
@@ -0,0 +1,15 @@
+package org.example.tennis_api.repository;
+
+import org.example.tennis_api.dto.match.MatchSummaryDTO;
+import org.example.tennis_api.entity.Match;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface MatchRepositoryCustom {
+    Stream<Match> streamAll(Specification<Match> specification);
+    List<MatchSummaryDTO> findSummaries(Specification<Match> specification, Sort sort);
+    List<MatchSummaryDTO> findSummaries(Specification<Match> specification, Sort sort, int limit);
+}
@@ -0,0 +1,83 @@
+package org.example.tennis_api.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.example.tennis_api.dto.match.MatchSummaryDTO;
+import org.example.tennis_api.entity.Match;
+import org.example.tennis_api.entity.User;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class MatchRepositoryCustomImpl implements MatchRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<Match> streamAll(Specification<Match> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Match> query = cb.createQuery(Match.class);
+        Root<Match> root = query.from(Match.class);
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.asc(root.get("matchDate")), cb.asc(root.get("matchTime")), cb.asc(root.get("id")));
+
+        TypedQuery<Match> typedQuery = entityManager.createQuery(query)
+                .setHint(AvailableHints.HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(AvailableHints.HINT_READ_ONLY, true)
+                .setHint(AvailableHints.HINT_SPEC_FETCH_GRAPH, entityManager.getEntityGraph("Match.participants"));
+
+        //rows are detached once read so the persistence context does not grow with the result set
+        return typedQuery.getResultStream().peek(entityManager::detach);
+    }
+
+    @Override
+    public List<MatchSummaryDTO> findSummaries(Specification<Match> specification, Sort sort) {
+        return createSummaryQuery(specification, sort).getResultList();
+    }
+
+    @Override
+    public List<MatchSummaryDTO> findSummaries(Specification<Match> specification, Sort sort, int limit) {
+        return createSummaryQuery(specification, sort).setMaxResults(limit).getResultList();
+    }
+
+    private TypedQuery<MatchSummaryDTO> createSummaryQuery(Specification<Match> specification, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<MatchSummaryDTO> query = cb.createQuery(MatchSummaryDTO.class);
+        Root<Match> root = query.from(Match.class);
+        Join<Match, User> referee = root.join("referee", JoinType.LEFT);
+        Join<Match, User> player1 = root.join("player1", JoinType.LEFT);
+        Join<Match, User> player2 = root.join("player2", JoinType.LEFT);
+
+        query.select(cb.construct(MatchSummaryDTO.class,
+                root.get("id"), root.get("name"), root.get("matchDate"), root.get("matchTime"), root.get("location"),
+                referee.get("id"), referee.get("name"),
+                player1.get("id"), player1.get("name"), root.get("player1Score"),
+                player2.get("id"), player2.get("name"), root.get("player2Score")));
+
+        Predicate predicate = specification.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        return entityManager.createQuery(query);
+    }
+}
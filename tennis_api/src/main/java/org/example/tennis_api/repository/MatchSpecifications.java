@@ -0,0 +1,81 @@
+package org.example.tennis_api.repository;
+
+import jakarta.persistence.criteria.Predicate;
+import org.example.tennis_api.entity.Match;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Collection;
+
+public final class MatchSpecifications {
+
+    private MatchSpecifications() {
+    }
+
+    public static Specification<Match> matchDateBetween(LocalDate startDate, LocalDate endDate) {
+        return (root, query, cb) -> cb.between(root.get("matchDate"), startDate, endDate);
+    }
+
+    public static Specification<Match> matchDateFrom(LocalDate startDate) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("matchDate"), startDate);
+    }
+
+    public static Specification<Match> locationEqualsIgnoreCase(String location) {
+        return (root, query, cb) -> cb.equal(cb.lower(root.get("location")), location.toLowerCase());
+    }
+
+    public static Specification<Match> hasReferee(Integer refereeId) {
+        return (root, query, cb) -> cb.equal(root.get("referee").get("id"), refereeId);
+    }
+
+    public static Specification<Match> hasPlayer(Integer playerId) {
+        return (root, query, cb) -> cb.or(
+                cb.equal(root.get("player1").get("id"), playerId),
+                cb.equal(root.get("player2").get("id"), playerId));
+    }
+
+    //one equality branch per slot, each answered from matches_date_time_id_idx
+    public static Specification<Match> atSlots(Collection<LocalDateTime> slots) {
+        return (root, query, cb) -> cb.or(slots.stream()
+                .map(slot -> cb.and(cb.equal(root.get("matchDate"), slot.toLocalDate()), cb.equal(root.get("matchTime"), slot.toLocalTime())))
+                .toArray(Predicate[]::new));
+    }
+
+    public static Specification<Match> after(LocalDate matchDate, LocalTime matchTime, Integer id, boolean descending) {
+        return (root, query, cb) -> {
+            if (descending) {
+                return cb.or(
+                        cb.lessThan(root.get("matchDate"), matchDate),
+                        cb.and(cb.equal(root.get("matchDate"), matchDate), cb.lessThan(root.get("matchTime"), matchTime)),
+                        cb.and(cb.equal(root.get("matchDate"), matchDate), cb.equal(root.get("matchTime"), matchTime),
+                                cb.lessThan(root.get("id"), id)));
+            }
+            return cb.or(
+                    cb.greaterThan(root.get("matchDate"), matchDate),
+                    cb.and(cb.equal(root.get("matchDate"), matchDate), cb.greaterThan(root.get("matchTime"), matchTime)),
+                    cb.and(cb.equal(root.get("matchDate"), matchDate), cb.equal(root.get("matchTime"), matchTime),
+                            cb.greaterThan(root.get("id"), id)));
+        };
+    }
+
+    public static Specification<Match> filter(LocalDate startDate, LocalDate endDate, String location, Integer refereeId, Integer playerId) {
+        Specification<Match> specification = Specification.where(null);
+
+        if (startDate != null && endDate != null) {
+            specification = specification.and(matchDateBetween(startDate, endDate));
+        }
+        if (location != null && !location.isEmpty()) {
+            specification = specification.and(locationEqualsIgnoreCase(location));
+        }
+        if (refereeId != null) {
+            specification = specification.and(hasReferee(refereeId));
+        }
+        if (playerId != null) {
+            specification = specification.and(hasPlayer(playerId));
+        }
+
+        return specification;
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.tennis_api.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.example.tennis_api.entity.NotificationOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    //SKIP LOCKED lets several instances drain the outbox without picking the same rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select n from NotificationOutbox n where n.parkedAt is null and (n.nextAttemptAt is null or n.nextAttemptAt <= :now) order by n.id")
+    List<NotificationOutbox> findDueForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+
+    //pending rows are counted from notification_outbox_pending_idx
+    long countByParkedAtIsNull();
+
+    long countByParkedAtIsNotNull();
+}
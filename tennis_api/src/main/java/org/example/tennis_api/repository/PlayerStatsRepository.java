@@ -0,0 +1,50 @@
+package org.example.tennis_api.repository;
+
+import org.example.tennis_api.dto.match.LeaderboardEntryDTO;
+import org.example.tennis_api.entity.PlayerStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PlayerStatsRepository extends JpaRepository<PlayerStats, Integer> {
+
+    String ENTRY_SELECT = "select new org.example.tennis_api.dto.match.LeaderboardEntryDTO(s.playerId, u.name, s.matchesPlayed, s.wins, s.losses, s.draws, " +
+            "s.pointsFor, s.pointsAgainst, s.pointDifference) from PlayerStats s join User u on u.id = s.playerId ";
+
+    //ordering matches player_stats_ranking_idx, so a page is an index range scan
+    @Query(ENTRY_SELECT + "where s.matchesPlayed > 0 order by s.wins desc, s.pointDifference desc, s.playerId")
+    List<LeaderboardEntryDTO> findLeaderboard(Pageable pageable);
+
+    @Query(ENTRY_SELECT + "where s.playerId = :playerId")
+    Optional<LeaderboardEntryDTO> findEntry(@Param("playerId") Integer playerId);
+
+    //players strictly ahead in leaderboard order, answered from the ranking index
+    @Query("select count(s) from PlayerStats s where s.matchesPlayed > 0 and (s.wins > :wins " +
+            "or (s.wins = :wins and s.pointDifference > :pointDifference) " +
+            "or (s.wins = :wins and s.pointDifference = :pointDifference and s.playerId < :playerId))")
+    long countAhead(@Param("wins") Integer wins, @Param("pointDifference") Integer pointDifference, @Param("playerId") Integer playerId);
+
+    //applied as a relative update so concurrent score changes never overwrite each other,
+    //flushing first so a row inserted earlier in the transaction is seen
+    @Modifying(flushAutomatically = true)
+    @Query("update PlayerStats s set s.matchesPlayed = s.matchesPlayed + :played, s.wins = s.wins + :wins, s.losses = s.losses + :losses, " +
+            "s.draws = s.draws + :draws, s.pointsFor = s.pointsFor + :pointsFor, s.pointsAgainst = s.pointsAgainst + :pointsAgainst, " +
+            "s.pointDifference = s.pointDifference + :pointsFor - :pointsAgainst where s.playerId = :playerId")
+    int applyDelta(@Param("playerId") Integer playerId, @Param("played") int played, @Param("wins") int wins, @Param("losses") int losses,
+                   @Param("draws") int draws, @Param("pointsFor") int pointsFor, @Param("pointsAgainst") int pointsAgainst);
+
+    //first finished match of a player, a row inserted concurrently by another transaction turns this into 0 rows instead of a key violation
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into player_stats (player_id, matches_played, wins, losses, draws, points_for, points_against, point_difference) " +
+            "values (:playerId, :played, :wins, :losses, :draws, :pointsFor, :pointsAgainst, :pointsFor - :pointsAgainst) " +
+            "on conflict do nothing", nativeQuery = true)
+    int insertIfAbsent(@Param("playerId") Integer playerId, @Param("played") int played, @Param("wins") int wins, @Param("losses") int losses,
+                       @Param("draws") int draws, @Param("pointsFor") int pointsFor, @Param("pointsAgainst") int pointsAgainst);
+}
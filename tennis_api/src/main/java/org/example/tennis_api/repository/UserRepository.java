@@ -2,16 +2,19 @@ package org.example.tennis_api.repository;
 
 import org.example.tennis_api.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Integer> {
+public interface UserRepository extends JpaRepository<User, Integer>, JpaSpecificationExecutor<User> {
     Optional<User> findByUsername(String username);
     List<User> findByUserType(String userType);
     Optional<User> findByName(String name);
     List<User> findByIsRegisteredInTournament(Boolean isRegisteredInTournament);
     List<User> findByTournamentRegistrationStatus(String tournamentRegistrationStatus);
+    List<User> findByUsernameInOrNameIn(Collection<String> usernames, Collection<String> names);
 }
@@ -0,0 +1,43 @@
+package org.example.tennis_api.repository;
+
+import org.example.tennis_api.entity.User;
+import org.springframework.data.jpa.domain.Specification;
+
+public final class UserSpecifications {
+
+    private UserSpecifications() {
+    }
+
+    public static Specification<User> hasUserType(String userType) {
+        return (root, query, cb) -> cb.equal(root.get("userType"), userType);
+    }
+
+    //matches lower(column) like '%value%', which the users_*_trgm_idx GIN indexes serve
+    public static Specification<User> containsIgnoreCase(String attribute, String value) {
+        return (root, query, cb) -> cb.like(cb.lower(root.get(attribute)), "%" + escapeLike(value.toLowerCase()) + "%", '\\');
+    }
+
+    public static Specification<User> isRegisteredInTournament(Boolean isRegisteredInTournament) {
+        return (root, query, cb) -> cb.equal(root.get("isRegisteredInTournament"), isRegisteredInTournament);
+    }
+
+    public static Specification<User> filterPlayers(String name, String username, Boolean isCompeting) {
+        Specification<User> specification = Specification.where(hasUserType("player"));
+
+        if (name != null && !name.isEmpty()) {
+            specification = specification.and(containsIgnoreCase("name", name));
+        }
+        if (username != null && !username.isEmpty()) {
+            specification = specification.and(containsIgnoreCase("username", username));
+        }
+        if (isCompeting != null) {
+            specification = specification.and(isRegisteredInTournament(isCompeting));
+        }
+
+        return specification;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.tennis_api.security;
+
+import jakarta.annotation.PreDestroy;
+import org.example.tennis_api.exceptions.TooManyRequestsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+//hashes on its own core-sized pool so a login storm cannot take every cpu, a request finding the queue full is shed with 429
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity) {
+        if (threads < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Password hashing needs at least one thread and one queue slot.");
+        }
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("password-hash-", 0).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    //for callers hashing many passwords at once, shed like encode when the queue is full
+    public CompletableFuture<String> encodeAsync(CharSequence rawPassword) {
+        try {
+            return CompletableFuture.supplyAsync(() -> delegate.encode(rawPassword), executor);
+        } catch (RejectedExecutionException e) {
+            throw shed();
+        }
+    }
+
+    public int parallelism() {
+        return executor.getMaximumPoolSize();
+    }
+
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    private <T> T run(Callable<T> hashing) {
+        Future<T> future;
+        try {
+            future = executor.submit(hashing);
+        } catch (RejectedExecutionException e) {
+            throw shed();
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to hash a password.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static TooManyRequestsException shed() {
+        return new TooManyRequestsException("Too many password checks in progress, please retry.", RETRY_AFTER);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.tennis_api.security;
+
+import java.util.Date;
+
+public record JwtClaims(String username, Integer userId, String userType, Date expiration) {
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+}
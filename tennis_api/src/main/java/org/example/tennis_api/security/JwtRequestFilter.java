@@ -1,12 +1,12 @@
 package org.example.tennis_api.security;
 
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import lombok.NonNull;
 import org.example.tennis_api.service.CustomUserDetailsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -26,39 +26,41 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private JwtUtil jwtUtil;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull FilterChain chain)
             throws ServletException, IOException {
 
         final String requestTokenHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwtToken;
+        JwtClaims claims = null;
 
         if (requestTokenHeader != null && requestTokenHeader.startsWith("Bearer ")) {
-            jwtToken = requestTokenHeader.substring(7);
+            String jwtToken = requestTokenHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwtToken);
+                claims = jwtUtil.parseAndVerify(jwtToken);
             } catch (IllegalArgumentException e) {
                 logger.error("Unable to get JWT Token");
             } catch (ExpiredJwtException e) {
                 logger.error("JWT Token has expired");
+            } catch (JwtException e) {
+                logger.error("Invalid JWT Token");
             }
         } else {
-            jwtToken = null;
             logger.warn("JWT Token does not begin with Bearer String");
         }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-
-            UserDetails userDetails = this.customUserDetailsService.loadUserByUsername(username);
+        if (claims != null && claims.username() != null && claims.userId() != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            if (jwtUtil.validateToken(jwtToken, userDetails.getUsername())) {
+            String username = claims.username();
+            Integer userId = claims.userId();
+            String userType = claims.userType();
 
-                Integer userId = jwtUtil.extractUserId(jwtToken);
-                String userType = jwtUtil.extractUserType(jwtToken);
+            CustomUserDetails customUserDetails = principalCache.get(userId, customUserDetailsService::loadUserById);
 
-                CustomUserDetails customUserDetails = (CustomUserDetails) userDetails;
+            if (customUserDetails.getId().equals(userId) && customUserDetails.getUsername().equals(username)) {
 
                 UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
                         customUserDetails, null, customUserDetails.getAuthorities());
@@ -1,35 +1,89 @@
 package org.example.tennis_api.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Getter
 @Component
 public class JwtUtil {
 
+    private static final int VERIFIED_TOKEN_CACHE_SIZE = 10_000;
+
     private final SecretKey key = Keys.hmacShaKeyFor("armored-core-VI-fires-of-rubicon".getBytes());
 
+    @Getter(AccessLevel.NONE)
+    private final JwtParser parser = Jwts.parser().verifyWith(key).build();
+
+    //keyed by token hash, each entry lives until its token expires
+    @Getter(AccessLevel.NONE)
+    private final Cache<String, JwtClaims> verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(VERIFIED_TOKEN_CACHE_SIZE)
+            .expireAfter(new Expiry<String, JwtClaims>() {
+                @Override
+                public long expireAfterCreate(String tokenHash, JwtClaims claims, long currentTime) {
+                    long millis = claims.expiration().getTime() - System.currentTimeMillis();
+                    return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+                }
+
+                @Override
+                public long expireAfterUpdate(String tokenHash, JwtClaims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String tokenHash, JwtClaims claims, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .build();
+
+    public JwtClaims parseAndVerify(String token) {
+        String tokenHash = hash(token);
+        JwtClaims cached = verifiedTokens.getIfPresent(tokenHash);
+        if (cached != null && !cached.isExpired()) {
+            return cached;
+        }
+
+        Claims claims = extractAllClaims(token);
+        JwtClaims verified = new JwtClaims(claims.getSubject(), claims.get("id", Integer.class),
+                claims.get("userType", String.class), claims.getExpiration());
+        if (verified.expiration() != null) {
+            verifiedTokens.put(tokenHash, verified);
+        }
+        return verified;
+    }
+
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parseAndVerify(token).username();
     }
 
     public Integer extractUserId(String token) {
-        return extractClaim(token, claims -> claims.get("id", Integer.class));
+        return parseAndVerify(token).userId();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return parseAndVerify(token).expiration();
     }
 
     public String extractUserType(String token) {
-        return extractClaim(token, claims -> claims.get("userType", String.class));
+        return parseAndVerify(token).userType();
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -38,14 +92,16 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(key).build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 
     public String generateToken(Integer userId, String username, String userType) {
@@ -64,9 +120,7 @@ public class JwtUtil {
     }
 
     public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        final JwtClaims claims = parseAndVerify(token);
+        return (claims.username().equals(username) && !claims.isExpired());
     }
 }
-
-
@@ -0,0 +1,49 @@
+package org.example.tennis_api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.example.tennis_api.exceptions.TooManyRequestsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+//counts failed logins per username, once the limit is reached further attempts are refused before any hashing until the lockout runs out
+@Component
+public class LoginThrottle {
+
+    private final int maxFailures;
+    private final Duration lockout;
+    private final Cache<String, AtomicInteger> failures;
+
+    public LoginThrottle(@Value("${security.login.max-failures:5}") int maxFailures,
+                         @Value("${security.login.lockout:PT1M}") Duration lockout) {
+        this.maxFailures = maxFailures;
+        this.lockout = lockout;
+        this.failures = Caffeine.newBuilder()
+                .expireAfterWrite(lockout)
+                .maximumSize(100_000)
+                .build();
+    }
+
+    public void check(String username) throws TooManyRequestsException {
+        AtomicInteger count = failures.getIfPresent(key(username));
+        if (count != null && count.get() >= maxFailures) {
+            throw new TooManyRequestsException("Too many failed login attempts, please retry later.", lockout);
+        }
+    }
+
+    //the window starts at the first failure and is not extended by later ones
+    public void recordFailure(String username) {
+        failures.get(key(username), key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public void recordSuccess(String username) {
+        failures.invalidate(key(username));
+    }
+
+    private static String key(String username) {
+        return username == null ? "" : username;
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.tennis_api.security;
+
+import org.example.tennis_api.repository.MatchRepository;
+import org.example.tennis_api.utilities.LookupCache;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+//ownership checks for the security expressions, answered from the referee id alone instead of loading the match
+@Component
+public class MatchOwnership {
+
+    private final MatchRepository matchRepository;
+    private final LookupCache lookupCache;
+
+    public MatchOwnership(MatchRepository matchRepository, LookupCache lookupCache) {
+        this.matchRepository = matchRepository;
+        this.lookupCache = lookupCache;
+    }
+
+    public boolean isReferee(Integer matchId, Integer userId) {
+        if (matchId == null || userId == null) {
+            return false;
+        }
+        Integer refereeId = lookupCache.refereeOf(matchId, id -> matchRepository.findRefereeIdById(id).orElse(null));
+        return Objects.equals(refereeId, userId);
+    }
+}
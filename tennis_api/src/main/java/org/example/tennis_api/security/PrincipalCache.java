@@ -0,0 +1,42 @@
+package org.example.tennis_api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+@Component
+public class PrincipalCache {
+
+    private final Cache<Integer, CustomUserDetails> principals;
+
+    public PrincipalCache(@Value("${security.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${security.principal-cache.ttl:PT5M}") Duration ttl) {
+        this.principals = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public CustomUserDetails get(Integer userId, Function<Integer, CustomUserDetails> loader) {
+        return principals.get(userId, loader);
+    }
+
+    //invalidated now and again after commit, otherwise a request racing the transaction could cache the old row until the ttl
+    public void invalidate(Integer userId) {
+        principals.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principals.invalidate(userId);
+                }
+            });
+        }
+    }
+}
@@ -24,7 +24,17 @@ public class CustomUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
+        return toUserDetails(user);
+    }
+
+    //tokens are cached by id, so they are resolved by id too, a username may have been renamed and taken by someone else since
+    public CustomUserDetails loadUserById(Integer id) throws UsernameNotFoundException {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with id: " + id));
+        return toUserDetails(user);
+    }
 
+    private static CustomUserDetails toUserDetails(User user) {
         List<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority("ROLE_" + user.getUserType().toUpperCase()));
 
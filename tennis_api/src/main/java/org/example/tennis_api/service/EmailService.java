@@ -1,34 +1,61 @@
 package org.example.tennis_api.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class EmailService {
 
-    @Autowired
-    private JavaMailSender emailSender;
+    private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
 
-    public void sendSimpleMessage(String to, String subject, String text) {
-        SimpleMailMessage message = new SimpleMailMessage();
-        message.setTo(to);
-        message.setSubject(subject);
-        message.setText(text);
-        emailSender.send(message);
-    }
+    private final JavaMailSender emailSender;
+    private final Counter sentCounter;
+    private final Counter failedCounter;
 
-    public void notifyAdmins(String subject, String text, List<String> adminEmails) {
-        for (String email : adminEmails) {
-            sendSimpleMessage(email, subject, text);
-        }
+    @Autowired
+    public EmailService(JavaMailSender emailSender, MeterRegistry meterRegistry) {
+        this.emailSender = emailSender;
+        this.sentCounter = meterRegistry.counter("email.sent");
+        this.failedCounter = meterRegistry.counter("email.failed");
     }
 
-    public void notifyUser(String email, String subject, String text) {
-        sendSimpleMessage(email, subject, text);
+    //sends the batch in one SMTP session and returns the messages that were not delivered, retrying is up to the caller
+    public Set<SimpleMailMessage> sendNow(List<SimpleMailMessage> messages) {
+        if (messages.isEmpty()) {
+            return Set.of();
+        }
+        Set<SimpleMailMessage> failed = Collections.newSetFromMap(new IdentityHashMap<>());
+        try {
+            emailSender.send(messages.toArray(new SimpleMailMessage[0]));
+        } catch (MailSendException e) {
+            //failed messages are keyed by the message passed in, a connection failure lists every message
+            e.getFailedMessages().keySet().stream()
+                    .filter(SimpleMailMessage.class::isInstance)
+                    .map(SimpleMailMessage.class::cast)
+                    .forEach(failed::add);
+            if (failed.isEmpty()) {
+                failed.addAll(messages);
+            }
+            logger.warn("{} of {} emails were not delivered: {}", failed.size(), messages.size(), e.getMessage());
+        } catch (MailException e) {
+            failed.addAll(messages);
+            logger.warn("Sending {} emails failed: {}", messages.size(), e.getMessage());
+        }
+        sentCounter.increment(messages.size() - failed.size());
+        failedCounter.increment(failed.size());
+        return failed;
     }
 }
-
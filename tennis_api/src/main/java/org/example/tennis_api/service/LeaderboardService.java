@@ -0,0 +1,14 @@
+package org.example.tennis_api.service;
+
+import org.example.tennis_api.dto.match.LeaderboardEntryDTO;
+import org.example.tennis_api.utilities.MatchResult;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+public interface LeaderboardService {
+    void recordChange(MatchResult before, MatchResult after);
+    void removePlayer(Integer playerId);
+    List<LeaderboardEntryDTO> findLeaderboard(Integer page, Integer size) throws IllegalArgumentException;
+    LeaderboardEntryDTO findPlayerRank(Integer playerId) throws NoSuchElementException;
+}
@@ -0,0 +1,121 @@
+package org.example.tennis_api.service;
+
+import org.example.tennis_api.dto.match.LeaderboardEntryDTO;
+import org.example.tennis_api.repository.MatchRepository;
+import org.example.tennis_api.repository.PlayerStatsRepository;
+import org.example.tennis_api.utilities.MatchResult;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+@Service
+public class LeaderboardServiceImpl implements LeaderboardService {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final PlayerStatsRepository playerStatsRepository;
+    private final MatchRepository matchRepository;
+
+    @Autowired
+    public LeaderboardServiceImpl(PlayerStatsRepository playerStatsRepository, MatchRepository matchRepository) {
+        this.playerStatsRepository = playerStatsRepository;
+        this.matchRepository = matchRepository;
+    }
+
+    //joins the caller's transaction so the aggregates commit or roll back with the match change
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(MatchResult before, MatchResult after) {
+        if (before.equals(after)) {
+            return;
+        }
+        //sorted by player id so concurrent updates lock stats rows in the same order
+        Map<Integer, int[]> deltas = new TreeMap<>();
+        accumulate(deltas, before, -1);
+        accumulate(deltas, after, 1);
+        deltas.forEach(this::apply);
+    }
+
+    //undoes the player's finished matches for their opponents before the user row goes away
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void removePlayer(Integer playerId) {
+        matchRepository.findSummariesByPlayerId(playerId).stream()
+                .map(MatchResult::of)
+                .forEach(result -> recordChange(result, MatchResult.NONE));
+        playerStatsRepository.deleteById(playerId);
+    }
+
+    @Override
+    public List<LeaderboardEntryDTO> findLeaderboard(Integer page, Integer size) throws IllegalArgumentException {
+        int pageNumber = page == null ? 0 : page;
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (pageNumber < 0) {
+            throw new IllegalArgumentException("Page number cannot be negative.");
+        }
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+
+        List<LeaderboardEntryDTO> entries = playerStatsRepository.findLeaderboard(PageRequest.of(pageNumber, pageSize));
+        long offset = (long) pageNumber * pageSize;
+        for (int i = 0; i < entries.size(); i++) {
+            entries.get(i).setRank(offset + i + 1);
+        }
+        return entries;
+    }
+
+    @Override
+    public LeaderboardEntryDTO findPlayerRank(Integer playerId) throws NoSuchElementException {
+        LeaderboardEntryDTO entry = playerStatsRepository.findEntry(playerId)
+                .filter(stats -> stats.getMatchesPlayed() > 0)
+                .orElseThrow(() -> new NoSuchElementException("Player has no finished matches."));
+        entry.setRank(playerStatsRepository.countAhead(entry.getWins(), entry.getPointDifference(), playerId) + 1);
+        return entry;
+    }
+
+    //delta layout: played, wins, losses, draws, points for, points against
+    private void accumulate(Map<Integer, int[]> deltas, MatchResult result, int sign) {
+        if (!result.isComplete()) {
+            return;
+        }
+        accumulate(deltas, result.player1Id(), result.player1Score(), result.player2Score(), sign);
+        accumulate(deltas, result.player2Id(), result.player2Score(), result.player1Score(), sign);
+    }
+
+    private void accumulate(Map<Integer, int[]> deltas, Integer playerId, int own, int other, int sign) {
+        int[] delta = deltas.computeIfAbsent(playerId, id -> new int[6]);
+        delta[0] += sign;
+        delta[1] += own > other ? sign : 0;
+        delta[2] += own < other ? sign : 0;
+        delta[3] += own == other ? sign : 0;
+        delta[4] += sign * own;
+        delta[5] += sign * other;
+    }
+
+    private void apply(Integer playerId, int[] delta) {
+        boolean unchanged = true;
+        for (int value : delta) {
+            unchanged &= value == 0;
+        }
+        if (unchanged) {
+            return;
+        }
+        if (playerStatsRepository.applyDelta(playerId, delta[0], delta[1], delta[2], delta[3], delta[4], delta[5]) > 0) {
+            return;
+        }
+        if (playerStatsRepository.insertIfAbsent(playerId, delta[0], delta[1], delta[2], delta[3], delta[4], delta[5]) > 0) {
+            return;
+        }
+        //another transaction created the row between the update and the insert, it is committed and visible now
+        playerStatsRepository.applyDelta(playerId, delta[0], delta[1], delta[2], delta[3], delta[4], delta[5]);
+    }
+}
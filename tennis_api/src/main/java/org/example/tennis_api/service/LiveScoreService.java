@@ -0,0 +1,186 @@
+package org.example.tennis_api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.example.tennis_api.utilities.MatchUpdatedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Service
+public class LiveScoreService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveScoreService.class);
+
+    private final ObjectMapper objectMapper;
+    private final long emitterTimeout;
+    private final int clientBuffer;
+    private final Map<Integer, Set<Subscriber>> matchSubscribers = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Subscriber>> playerSubscribers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("live-score-", 0).factory());
+    private final Counter droppedCounter;
+
+    @Autowired
+    public LiveScoreService(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                            @Value("${live.emitter-timeout:PT30M}") Duration emitterTimeout,
+                            @Value("${live.client-buffer:32}") int clientBuffer) {
+        this.objectMapper = objectMapper;
+        this.emitterTimeout = emitterTimeout.toMillis();
+        this.clientBuffer = clientBuffer;
+
+        Gauge.builder("live.subscribers", subscribers, Set::size).register(meterRegistry);
+        this.droppedCounter = meterRegistry.counter("live.dropped");
+    }
+
+    public SseEmitter subscribeToMatch(Integer matchId) {
+        return subscribeToMatch(matchId, new SseEmitter(emitterTimeout));
+    }
+
+    public SseEmitter subscribeToPlayer(Integer playerId) {
+        return subscribeToPlayer(playerId, new SseEmitter(emitterTimeout));
+    }
+
+    SseEmitter subscribeToMatch(Integer matchId, SseEmitter emitter) {
+        return subscribe(matchSubscribers, matchId, emitter);
+    }
+
+    SseEmitter subscribeToPlayer(Integer playerId, SseEmitter emitter) {
+        return subscribe(playerSubscribers, playerId, emitter);
+    }
+
+    private SseEmitter subscribe(Map<Integer, Set<Subscriber>> registry, Integer key, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter, new ArrayBlockingQueue<>(clientBuffer));
+        subscriber.unsubscribe = () -> {
+            subscribers.remove(subscriber);
+            registry.computeIfPresent(key, (k, set) -> {
+                set.remove(subscriber);
+                return set.isEmpty() ? null : set;
+            });
+        };
+        registry.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        subscribers.add(subscriber);
+        emitter.onCompletion(subscriber.unsubscribe);
+        emitter.onTimeout(subscriber.unsubscribe);
+        emitter.onError(e -> subscriber.unsubscribe.run());
+        return emitter;
+    }
+
+    //runs after commit, so viewers never see a score that was rolled back
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onMatchUpdated(MatchUpdatedEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event.match());
+        } catch (JsonProcessingException e) {
+            logger.error("Could not encode live update for match {}: {}", event.match().getId(), e.getMessage());
+            return;
+        }
+
+        //encoded once, then only queued here, each subscriber is written to by its own sender
+        LiveEvent liveEvent = new LiveEvent(String.valueOf(event.match().getId()), payload);
+        offerAll(matchSubscribers.get(event.match().getId()), liveEvent);
+        for (Integer playerId : event.playerIds()) {
+            offerAll(playerSubscribers.get(playerId), liveEvent);
+        }
+    }
+
+    //keeps idle connections open through proxies and weeds out clients that went away
+    @Scheduled(fixedDelayString = "${live.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(LiveEvent.HEARTBEAT);
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    private void offerAll(Set<Subscriber> targets, LiveEvent event) {
+        if (targets == null) {
+            return;
+        }
+        for (Subscriber subscriber : targets) {
+            subscriber.offer(event);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private record LiveEvent(String matchId, String payload) {
+        static final LiveEvent HEARTBEAT = new LiveEvent(null, null);
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final BlockingQueue<LiveEvent> buffer;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile Runnable unsubscribe;
+
+        private Subscriber(SseEmitter emitter, BlockingQueue<LiveEvent> buffer) {
+            this.emitter = emitter;
+            this.buffer = buffer;
+        }
+
+        //a full buffer means the client is not keeping up, the oldest update goes since a newer score supersedes it
+        private void offer(LiveEvent event) {
+            while (!buffer.offer(event)) {
+                if (buffer.poll() != null) {
+                    droppedCounter.increment();
+                }
+            }
+            if (sending.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                LiveEvent event;
+                while ((event = buffer.poll()) != null) {
+                    if (event == LiveEvent.HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event().name("match").id(event.matchId()).data(event.payload(), MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                unsubscribe.run();
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                sending.set(false);
+            }
+            if (!buffer.isEmpty() && sending.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+    }
+}
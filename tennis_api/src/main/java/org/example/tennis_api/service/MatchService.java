@@ -1,6 +1,8 @@
 package org.example.tennis_api.service;
 
 import org.example.tennis_api.dto.match.MatchDTO;
+import org.example.tennis_api.dto.match.MatchPageDTO;
+import org.example.tennis_api.dto.match.MatchSummaryDTO;
 import org.example.tennis_api.entity.Match;
 import org.example.tennis_api.utilities.MatchExportStrategy;
 
@@ -12,18 +14,21 @@ import java.util.NoSuchElementException;
 
 public interface MatchService {
     Match createMatch(MatchDTO matchDTO) throws Exception;
+    List<MatchSummaryDTO> createMatches(List<MatchDTO> matchDTOs) throws IllegalArgumentException;
     Match registerPlayerToMatch(Integer matchId, Integer playerId) throws Exception;
-    List<Match> findAllMatches();
-    List<Match> findAllMatchesByRefereeId(Integer refereeId) throws Exception;
-    List<Match> findAllMatchesByPlayerId(Integer playerId) throws NoSuchElementException, IllegalArgumentException;
+    List<MatchSummaryDTO> findAllMatches();
+    List<MatchSummaryDTO> findAllMatchesByRefereeId(Integer refereeId) throws Exception;
+    List<MatchSummaryDTO> findAllMatchesByPlayerId(Integer playerId) throws NoSuchElementException, IllegalArgumentException;
     Match findMatchById(Integer matchId);
     Match updateMatchScore(Integer matchId, Integer player1Score, Integer player2Score) throws Exception;
     Match updateMatch(MatchDTO matchDTO, Integer id) throws Exception;
     void deleteMatch(Integer matchId) throws Exception;
     Match removePlayerFromMatch(Integer matchId, Integer playerId) throws NoSuchElementException, IllegalArgumentException;
-    List<Match> findMatches(LocalDate startDate, LocalDate endDate, String location, Integer refereeId, Integer playerId);
-    void exportMatches(List<Match> matches, OutputStream outputStream, MatchExportStrategy strategy) throws IOException;
-    Integer findMatchRef(Integer matchId);
+    List<MatchSummaryDTO> findMatches(LocalDate startDate, LocalDate endDate, String location, Integer refereeId, Integer playerId);
+    MatchPageDTO findMatchesPage(LocalDate startDate, LocalDate endDate, String location, Integer refereeId, Integer playerId,
+                                 String cursor, Integer size, String direction) throws IllegalArgumentException;
+    void exportMatches(LocalDate startDate, LocalDate endDate, String location, Integer refereeId, Integer playerId,
+                       OutputStream outputStream, MatchExportStrategy strategy) throws IOException;
 }
 
 
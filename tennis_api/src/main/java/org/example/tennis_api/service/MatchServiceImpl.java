@@ -1,35 +1,75 @@
 package org.example.tennis_api.service;
 
 import org.example.tennis_api.dto.match.MatchDTO;
+import org.example.tennis_api.dto.match.MatchPageDTO;
+import org.example.tennis_api.dto.match.MatchSummaryDTO;
+import org.example.tennis_api.dto.match.ParticipantDTO;
 import org.example.tennis_api.entity.Match;
 import org.example.tennis_api.entity.User;
+import org.example.tennis_api.exceptions.ScheduleConflictException;
 import org.example.tennis_api.mapper.MatchMapper;
 import org.example.tennis_api.repository.MatchRepository;
+import org.example.tennis_api.repository.MatchSpecifications;
 import org.example.tennis_api.repository.UserRepository;
+import org.example.tennis_api.utilities.BookingIndex;
+import org.example.tennis_api.utilities.CollectionVersions;
+import org.example.tennis_api.utilities.LookupCache;
+import org.example.tennis_api.utilities.MatchCursor;
 import org.example.tennis_api.utilities.MatchExportStrategy;
+import org.example.tennis_api.utilities.MatchResult;
+import org.example.tennis_api.utilities.MatchUpdatedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class MatchServiceImpl implements MatchService{
 
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 500;
+    private static final int MAX_UPDATE_ATTEMPTS = 5;
+
     private final MatchRepository matchRepository;
     private final UserRepository userRepository;
     private final MatchMapper matchMapper;
+    private final LeaderboardService leaderboardService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CollectionVersions collectionVersions;
+    private final LookupCache lookupCache;
 
     @Autowired
-    public MatchServiceImpl(MatchRepository matchRepository, UserRepository userRepository, MatchMapper matchMapper) {
+    public MatchServiceImpl(MatchRepository matchRepository, UserRepository userRepository, MatchMapper matchMapper,
+                            LeaderboardService leaderboardService, ApplicationEventPublisher eventPublisher,
+                            CollectionVersions collectionVersions, LookupCache lookupCache) {
         this.matchRepository = matchRepository;
         this.userRepository = userRepository;
         this.matchMapper = matchMapper;
+        this.leaderboardService = leaderboardService;
+        this.eventPublisher = eventPublisher;
+        this.collectionVersions = collectionVersions;
+        this.lookupCache = lookupCache;
     }
 
     private void validateMatchDetails(String name, LocalDate matchDate, LocalTime matchTime, String location) {
@@ -58,10 +98,35 @@ public class MatchServiceImpl implements MatchService{
         }
     }
 
+    //everything already booked at the given slots, each slot is one probe of matches_date_time_id_idx
+    private BookingIndex findBookings(Collection<LocalDateTime> slots) {
+        BookingIndex bookings = new BookingIndex();
+        for (MatchSummaryDTO match : matchRepository.findSummaries(MatchSpecifications.atSlots(slots), Sort.unsorted())) {
+            bookings.add(match.getId(), match.getMatchDate(), match.getMatchTime(), match.getLocation(),
+                    participantId(match.getReferee()), participantId(match.getPlayer1()), participantId(match.getPlayer2()));
+        }
+        return bookings;
+    }
+
+    private static Integer participantId(ParticipantDTO participant) {
+        return participant == null ? null : participant.getId();
+    }
+
+    private void checkConflicts(Integer matchId, MatchDTO matchDTO) throws ScheduleConflictException {
+        String conflict = findBookings(List.of(LocalDateTime.of(matchDTO.getMatchDate(), matchDTO.getMatchTime())))
+                .findConflict(matchId, matchDTO.getMatchDate(), matchDTO.getMatchTime(), matchDTO.getLocation(),
+                        matchDTO.getReferee(), matchDTO.getPlayer1(), matchDTO.getPlayer2());
+        if (conflict != null) {
+            throw new ScheduleConflictException(conflict);
+        }
+    }
+
     @Override
-    public Match createMatch(MatchDTO matchDTO) throws IllegalArgumentException {
+    @Transactional
+    public Match createMatch(MatchDTO matchDTO) throws IllegalArgumentException, ScheduleConflictException {
         validateMatchDetails(matchDTO.getName(), matchDTO.getMatchDate(), matchDTO.getMatchTime(), matchDTO.getLocation());
         validateMatchDTO(matchDTO);
+        checkConflicts(null, matchDTO);
 
         Match match = matchMapper.toEntity(matchDTO);
 
@@ -83,77 +148,200 @@ public class MatchServiceImpl implements MatchService{
             match.setPlayer2(player2);
         }
 
-        return matchRepository.save(match);
+        Match savedMatch = matchRepository.save(match);
+        leaderboardService.recordChange(MatchResult.NONE, MatchResult.of(savedMatch));
+        collectionVersions.bump(CollectionVersions.MATCHES);
+        return savedMatch;
     }
 
 
     @Override
-    public Match registerPlayerToMatch(Integer matchId, Integer playerId) throws IllegalArgumentException, NoSuchElementException {
-        Match match = matchRepository.findById(matchId)
-                .orElseThrow(() -> new NoSuchElementException("Match not found"));
-        if (match.getPlayer1() != null && match.getPlayer2() != null) {
-            throw new IllegalArgumentException("Match already has two players");
+    @Transactional
+    public List<MatchSummaryDTO> createMatches(List<MatchDTO> matchDTOs) throws IllegalArgumentException, ScheduleConflictException {
+        if (matchDTOs == null || matchDTOs.isEmpty()) {
+            throw new IllegalArgumentException("Match batch cannot be empty.");
         }
-        if ((match.getPlayer1() != null && match.getPlayer1().getId().equals(playerId)) ||
-                (match.getPlayer2() != null && match.getPlayer2().getId().equals(playerId))) {
-            throw new IllegalArgumentException("Player already registered to this match");
+        if (matchDTOs.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Match batch cannot contain more than " + MAX_BATCH_SIZE + " matches.");
         }
 
-        User player = userRepository.findById(playerId)
-                .orElseThrow(() -> new NoSuchElementException("Player not found with ID: " + playerId));
+        Set<Integer> userIds = new HashSet<>();
+        for (int i = 0; i < matchDTOs.size(); i++) {
+            MatchDTO matchDTO = matchDTOs.get(i);
+            try {
+                validateMatchDetails(matchDTO.getName(), matchDTO.getMatchDate(), matchDTO.getMatchTime(), matchDTO.getLocation());
+                validateMatchDTO(matchDTO);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Match " + (i + 1) + ": " + e.getMessage());
+            }
+            Stream.of(matchDTO.getReferee(), matchDTO.getPlayer1(), matchDTO.getPlayer2())
+                    .filter(Objects::nonNull)
+                    .forEach(userIds::add);
+        }
+
+        //checked against the stored matches and the batch itself, unsaved matches are told apart by negative row numbers
+        BookingIndex bookings = findBookings(matchDTOs.stream()
+                .map(matchDTO -> LocalDateTime.of(matchDTO.getMatchDate(), matchDTO.getMatchTime()))
+                .collect(Collectors.toSet()));
+        for (int i = 0; i < matchDTOs.size(); i++) {
+            MatchDTO matchDTO = matchDTOs.get(i);
+            String conflict = bookings.findConflict(-(i + 1), matchDTO.getMatchDate(), matchDTO.getMatchTime(), matchDTO.getLocation(),
+                    matchDTO.getReferee(), matchDTO.getPlayer1(), matchDTO.getPlayer2());
+            if (conflict != null) {
+                throw new ScheduleConflictException("Match " + (i + 1) + ": " + conflict);
+            }
+            bookings.add(-(i + 1), matchDTO.getMatchDate(), matchDTO.getMatchTime(), matchDTO.getLocation(),
+                    matchDTO.getReferee(), matchDTO.getPlayer1(), matchDTO.getPlayer2());
+        }
+
+        Map<Integer, User> users = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<Match> matches = new ArrayList<>(matchDTOs.size());
+        for (int i = 0; i < matchDTOs.size(); i++) {
+            MatchDTO matchDTO = matchDTOs.get(i);
+            Match match = matchMapper.toEntity(matchDTO);
+            match.setReferee(resolveUser(users, matchDTO.getReferee(), "Match " + (i + 1) + ": Referee not found with ID: "));
+            match.setPlayer1(resolveUser(users, matchDTO.getPlayer1(), "Match " + (i + 1) + ": Player 1 not found with ID: "));
+            match.setPlayer2(resolveUser(users, matchDTO.getPlayer2(), "Match " + (i + 1) + ": Player 2 not found with ID: "));
+            matches.add(match);
+        }
+
+        List<Match> savedMatches = matchRepository.saveAll(matches);
+        savedMatches.forEach(match -> leaderboardService.recordChange(MatchResult.NONE, MatchResult.of(match)));
+        collectionVersions.bump(CollectionVersions.MATCHES);
+        return savedMatches.stream().map(MatchSummaryDTO::of).toList();
+    }
+
+    //delivered to live subscribers once the surrounding transaction commits
+    private void publishUpdate(Match match, MatchResult before) {
+        Set<Integer> playerIds = Stream.of(before.player1Id(), before.player2Id(),
+                        match.getPlayer1() != null ? match.getPlayer1().getId() : null,
+                        match.getPlayer2() != null ? match.getPlayer2().getId() : null)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        eventPublisher.publishEvent(new MatchUpdatedEvent(MatchSummaryDTO.of(match), playerIds));
+    }
 
-        if (match.getPlayer1() == null) {
-            match.setPlayer1(player);
-        } else if (match.getPlayer2() == null) {
-            match.setPlayer2(player);
+    private User resolveUser(Map<Integer, User> users, Integer userId, String notFoundMessage) throws IllegalArgumentException {
+        if (userId == null) {
+            return null;
+        }
+        User user = users.get(userId);
+        if (user == null) {
+            throw new IllegalArgumentException(notFoundMessage + userId);
         }
+        return user;
+    }
+
+    @Override
+    @Transactional
+    public Match registerPlayerToMatch(Integer matchId, Integer playerId) throws IllegalArgumentException, NoSuchElementException {
+        User player = null;
+        for (int attempt = 0; attempt < MAX_UPDATE_ATTEMPTS; attempt++) {
+            Match match = matchRepository.findById(matchId)
+                    .orElseThrow(() -> new NoSuchElementException("Match not found"));
+            if (match.getPlayer1() != null && match.getPlayer2() != null) {
+                throw new IllegalArgumentException("Match already has two players");
+            }
+            if ((match.getPlayer1() != null && match.getPlayer1().getId().equals(playerId)) ||
+                    (match.getPlayer2() != null && match.getPlayer2().getId().equals(playerId))) {
+                throw new IllegalArgumentException("Player already registered to this match");
+            }
 
-        return matchRepository.save(match);
+            if (player == null) {
+                player = userRepository.findById(playerId)
+                        .orElseThrow(() -> new NoSuchElementException("Player not found with ID: " + playerId));
+            }
+            //checked on every attempt, a concurrent update may have moved the match or booked the player meanwhile
+            String conflict = findBookings(List.of(LocalDateTime.of(match.getMatchDate(), match.getMatchTime())))
+                    .findConflict(matchId, match.getMatchDate(), match.getMatchTime(), null, null, playerId, null);
+            if (conflict != null) {
+                throw new ScheduleConflictException(conflict);
+            }
+
+            MatchResult before = MatchResult.of(match);
+            boolean firstSlot = match.getPlayer1() == null;
+            int updated = firstSlot
+                    ? matchRepository.claimPlayer1Slot(matchId, match.getVersion(), player)
+                    : matchRepository.claimPlayer2Slot(matchId, match.getVersion(), player);
+            if (updated == 1) {
+                if (firstSlot) {
+                    match.setPlayer1(player);
+                } else {
+                    match.setPlayer2(player);
+                }
+                match.setVersion(match.getVersion() + 1);
+                leaderboardService.recordChange(before, MatchResult.of(match));
+                collectionVersions.bump(CollectionVersions.MATCHES);
+                lookupCache.evictMatch(matchId);
+                return match;
+            }
+        }
+        throw new OptimisticLockingFailureException("Match " + matchId + " is being modified concurrently, please retry.");
     }
 
     @Override
-    public List<Match> findAllMatches() {
-        return matchRepository.findAll();
+    public List<MatchSummaryDTO> findAllMatches() {
+        return matchRepository.findAllSummaries();
     }
 
     @Override
-    public List<Match> findAllMatchesByRefereeId(Integer refereeId) throws IllegalArgumentException, NoSuchElementException {
+    public List<MatchSummaryDTO> findAllMatchesByRefereeId(Integer refereeId) throws IllegalArgumentException, NoSuchElementException {
         User referee = userRepository.findById(refereeId).orElseThrow(() -> new NoSuchElementException("User doesn't exist."));
         if(!referee.getUserType().equals("referee"))
             throw new IllegalArgumentException("User is not a referee");
-        return matchRepository.findByReferee(referee);
+        return matchRepository.findSummariesByRefereeId(refereeId);
     }
 
-    public List<Match> findAllMatchesByPlayerId(Integer playerId) throws NoSuchElementException, IllegalArgumentException {
+    public List<MatchSummaryDTO> findAllMatchesByPlayerId(Integer playerId) throws NoSuchElementException, IllegalArgumentException {
         User player = userRepository.findById(playerId)
                 .orElseThrow(() -> new NoSuchElementException("User doesn't exist."));
         if(!player.getUserType().equals("player"))
             throw new IllegalArgumentException("User is not a player");
-        return matchRepository.findByPlayer1OrPlayer2(player, player);
+        return matchRepository.findSummariesByPlayerId(playerId);
     }
 
     @Override
     public Match findMatchById(Integer matchId) {
-        return matchRepository.findById(matchId).orElseThrow(() -> new NoSuchElementException("Match not found"));
+        Match match = lookupCache.match(matchId, id -> matchRepository.findById(id).orElse(null));
+        if (match == null) {
+            throw new NoSuchElementException("Match not found");
+        }
+        return match;
     }
 
     @Override
+    @Transactional
     public Match updateMatchScore(Integer matchId, Integer player1Score, Integer player2Score) throws NoSuchElementException {
-        Match match = matchRepository.findById(matchId)
-                .orElseThrow(() -> new NoSuchElementException("Match not found"));
-
-        match.setPlayer1Score(player1Score);
-        match.setPlayer2Score(player2Score);
-        
-        return matchRepository.save(match);
+        for (int attempt = 0; attempt < MAX_UPDATE_ATTEMPTS; attempt++) {
+            Match match = matchRepository.findById(matchId)
+                    .orElseThrow(() -> new NoSuchElementException("Match not found"));
+            MatchResult before = MatchResult.of(match);
+
+            if (matchRepository.updateScore(matchId, match.getVersion(), player1Score, player2Score) == 1) {
+                match.setPlayer1Score(player1Score);
+                match.setPlayer2Score(player2Score);
+                match.setVersion(match.getVersion() + 1);
+                leaderboardService.recordChange(before, MatchResult.of(match));
+                collectionVersions.bump(CollectionVersions.MATCHES);
+                lookupCache.evictMatch(matchId);
+                publishUpdate(match, before);
+                return match;
+            }
+        }
+        throw new OptimisticLockingFailureException("Match " + matchId + " is being modified concurrently, please retry.");
     }
 
     @Override
-    public Match updateMatch(MatchDTO matchDTO, Integer id) throws NoSuchElementException {
+    @Transactional
+    public Match updateMatch(MatchDTO matchDTO, Integer id) throws NoSuchElementException, ScheduleConflictException {
         Match existingMatch = matchRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("Match not found"));
+        MatchResult before = MatchResult.of(existingMatch);
         validateMatchDTO(matchDTO);
         validateMatchDetails(matchDTO.getName(), matchDTO.getMatchDate(), matchDTO.getMatchTime(), matchDTO.getLocation());
+        checkConflicts(id, matchDTO);
 
         if (matchDTO.getReferee() != null && (existingMatch.getReferee() == null || !matchDTO.getReferee().equals(existingMatch.getReferee().getId()))) {
             User referee = userRepository.findById(matchDTO.getReferee())
@@ -186,22 +374,32 @@ public class MatchServiceImpl implements MatchService{
         existingMatch.setPlayer1Score(matchDTO.getPlayer1Score());
         existingMatch.setPlayer2Score(matchDTO.getPlayer2Score());
 
-        return matchRepository.save(existingMatch);
+        Match savedMatch = matchRepository.save(existingMatch);
+        leaderboardService.recordChange(before, MatchResult.of(savedMatch));
+        collectionVersions.bump(CollectionVersions.MATCHES);
+        lookupCache.evictMatch(id);
+        publishUpdate(savedMatch, before);
+        return savedMatch;
     }
 
 
     @Override
+    @Transactional
     public void deleteMatch(Integer matchId) throws NoSuchElementException {
-        if (!matchRepository.existsById(matchId)) {
-            throw new NoSuchElementException("Match not found");
-        }
-        matchRepository.deleteById(matchId);
+        Match match = matchRepository.findById(matchId)
+                .orElseThrow(() -> new NoSuchElementException("Match not found"));
+        leaderboardService.recordChange(MatchResult.of(match), MatchResult.NONE);
+        matchRepository.delete(match);
+        collectionVersions.bump(CollectionVersions.MATCHES);
+        lookupCache.evictMatch(matchId);
     }
 
     @Override
+    @Transactional
     public Match removePlayerFromMatch(Integer matchId, Integer playerId) throws NoSuchElementException, IllegalArgumentException {
         Match match = matchRepository.findById(matchId)
                 .orElseThrow(() -> new NoSuchElementException("Match not found with ID: " + matchId));
+        MatchResult before = MatchResult.of(match);
 
         if (match.getPlayer1() != null && match.getPlayer1().getId().equals(playerId)) {
             match.setPlayer1(null);
@@ -212,46 +410,51 @@ public class MatchServiceImpl implements MatchService{
             match.setPlayer2Score(null);
         }
 
-        return matchRepository.save(match);
+        Match savedMatch = matchRepository.save(match);
+        leaderboardService.recordChange(before, MatchResult.of(savedMatch));
+        collectionVersions.bump(CollectionVersions.MATCHES);
+        lookupCache.evictMatch(matchId);
+        return savedMatch;
     }
 
     @Override
-    public List<Match> findMatches(LocalDate startDate, LocalDate endDate, String location, Integer refereeId, Integer playerId) {
-        List<Match> matches = matchRepository.findAll();
+    public List<MatchSummaryDTO> findMatches(LocalDate startDate, LocalDate endDate, String location, Integer refereeId, Integer playerId) {
+        return matchRepository.findSummaries(MatchSpecifications.filter(startDate, endDate, location, refereeId, playerId), Sort.unsorted());
+    }
 
-        if (startDate != null && endDate != null) {
-            matches = matches.stream()
-                    .filter(match -> !match.getMatchDate().isBefore(startDate) && !match.getMatchDate().isAfter(endDate))
-                    .collect(Collectors.toList());
-        }
-        if (location != null && !location.isEmpty()) {
-            matches = matches.stream()
-                    .filter(match -> match.getLocation().equalsIgnoreCase(location))
-                    .collect(Collectors.toList());
-        }
-        if (refereeId != null) {
-            matches = matches.stream()
-                    .filter(match -> match.getReferee() != null && match.getReferee().getId().equals(refereeId))
-                    .collect(Collectors.toList());
+    @Override
+    public MatchPageDTO findMatchesPage(LocalDate startDate, LocalDate endDate, String location, Integer refereeId, Integer playerId,
+                                        String cursor, Integer size, String direction) throws IllegalArgumentException {
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
         }
-        if (playerId != null) {
-            matches = matches.stream()
-                    .filter(match -> (match.getPlayer1() != null && match.getPlayer1().getId().equals(playerId)) ||
-                            (match.getPlayer2() != null && match.getPlayer2().getId().equals(playerId)))
-                    .collect(Collectors.toList());
+        boolean descending = direction != null && direction.equalsIgnoreCase("desc");
+        if (direction != null && !descending && !direction.equalsIgnoreCase("asc")) {
+            throw new IllegalArgumentException("Sort direction must be 'asc' or 'desc'.");
         }
 
-        return matches;
-    }
+        Specification<Match> specification = MatchSpecifications.filter(startDate, endDate, location, refereeId, playerId);
+        if (cursor != null && !cursor.isEmpty()) {
+            MatchCursor after = MatchCursor.decode(cursor);
+            specification = specification.and(MatchSpecifications.after(after.getMatchDate(), after.getMatchTime(), after.getId(), descending));
+        }
+        Sort sort = Sort.by(descending ? Sort.Direction.DESC : Sort.Direction.ASC, "matchDate", "matchTime", "id");
 
-    @Override
-    public void exportMatches(List<Match> matches, OutputStream outputStream, MatchExportStrategy strategy) throws IOException {
-        strategy.export(matches, outputStream);
+        List<MatchSummaryDTO> matches = matchRepository.findSummaries(specification, sort, pageSize + 1);
+        if (matches.size() <= pageSize) {
+            return new MatchPageDTO(matches, null);
+        }
+        List<MatchSummaryDTO> page = matches.subList(0, pageSize);
+        return new MatchPageDTO(page, MatchCursor.of(page.getLast()).encode());
     }
 
     @Override
-    public Integer findMatchRef(Integer matchId) {
-        Match match = findMatchById(matchId);
-        return match.getReferee().getId();
+    @Transactional(readOnly = true)
+    public void exportMatches(LocalDate startDate, LocalDate endDate, String location, Integer refereeId, Integer playerId,
+                              OutputStream outputStream, MatchExportStrategy strategy) throws IOException {
+        try (Stream<Match> matches = matchRepository.streamAll(MatchSpecifications.filter(startDate, endDate, location, refereeId, playerId))) {
+            strategy.export(matches, outputStream);
+        }
     }
 }
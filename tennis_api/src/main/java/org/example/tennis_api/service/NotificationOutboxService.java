@@ -0,0 +1,132 @@
+package org.example.tennis_api.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.tennis_api.entity.NotificationOutbox;
+import org.example.tennis_api.repository.NotificationOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+@Service
+public class NotificationOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationOutboxService.class);
+    private static final int MAX_BACKOFF_SHIFT = 10;
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration backoff;
+    private final Duration claimTimeout;
+
+    @Autowired
+    public NotificationOutboxService(NotificationOutboxRepository outboxRepository, EmailService emailService,
+                                     PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                                     @Value("${notification.outbox.batch-size:100}") int batchSize,
+                                     @Value("${notification.outbox.max-attempts:5}") int maxAttempts,
+                                     @Value("${notification.outbox.backoff:PT30S}") Duration backoff,
+                                     @Value("${notification.outbox.claim-timeout:PT5M}") Duration claimTimeout) {
+        this.outboxRepository = outboxRepository;
+        this.emailService = emailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoff = backoff;
+        this.claimTimeout = claimTimeout;
+
+        //the outbox is the mail queue, its depth is read from the table on every scrape
+        Gauge.builder("notification.outbox.pending", outboxRepository, NotificationOutboxRepository::countByParkedAtIsNull)
+                .register(meterRegistry);
+        Gauge.builder("notification.outbox.parked", outboxRepository, NotificationOutboxRepository::countByParkedAtIsNotNull)
+                .register(meterRegistry);
+    }
+
+    public void enqueue(String recipient, String subject, String body) {
+        outboxRepository.save(newEntry(recipient, subject, body));
+    }
+
+    public void enqueueAll(List<String> recipients, String subject, String body) {
+        outboxRepository.saveAll(recipients.stream().map(recipient -> newEntry(recipient, subject, body)).toList());
+    }
+
+    //rows are claimed in a short transaction and sent after it commits, so no lock or connection is held during SMTP
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval:PT5S}")
+    public void drain() {
+        List<NotificationOutbox> batch = transactionTemplate.execute(status -> claim());
+        if (batch == null || batch.isEmpty()) {
+            return;
+        }
+
+        List<SimpleMailMessage> messages = batch.stream().map(this::toMessage).toList();
+        Set<SimpleMailMessage> failed = emailService.sendNow(messages);
+
+        List<NotificationOutbox> delivered = new ArrayList<>(batch.size());
+        List<NotificationOutbox> retried = new ArrayList<>(failed.size());
+        for (int i = 0; i < batch.size(); i++) {
+            (failed.contains(messages.get(i)) ? retried : delivered).add(batch.get(i));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!delivered.isEmpty()) {
+                outboxRepository.deleteAllByIdInBatch(delivered.stream().map(NotificationOutbox::getId).toList());
+            }
+            if (!retried.isEmpty()) {
+                retried.forEach(this::recordFailure);
+                outboxRepository.saveAll(retried);
+            }
+        });
+    }
+
+    //a claim runs out after claimTimeout, so rows of an instance that died mid-send are picked up again
+    private List<NotificationOutbox> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<NotificationOutbox> batch = outboxRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+        batch.forEach(entry -> entry.setNextAttemptAt(now.plus(claimTimeout)));
+        return batch;
+    }
+
+    //backs off exponentially per row so one bad recipient never holds up the rows behind it
+    private void recordFailure(NotificationOutbox entry) {
+        int attempts = entry.getAttempts() + 1;
+        entry.setAttempts(attempts);
+        if (attempts >= maxAttempts) {
+            entry.setParkedAt(LocalDateTime.now());
+            entry.setNextAttemptAt(null);
+            logger.error("Parking outbox notification {} to {} after {} failed attempts", entry.getId(), entry.getRecipient(), attempts);
+            return;
+        }
+        entry.setNextAttemptAt(LocalDateTime.now().plus(backoff.multipliedBy(1L << Math.min(attempts - 1, MAX_BACKOFF_SHIFT))));
+    }
+
+    private NotificationOutbox newEntry(String recipient, String subject, String body) {
+        NotificationOutbox entry = new NotificationOutbox();
+        entry.setRecipient(recipient);
+        entry.setSubject(subject);
+        entry.setBody(body);
+        entry.setCreatedAt(LocalDateTime.now());
+        return entry;
+    }
+
+    private SimpleMailMessage toMessage(NotificationOutbox entry) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(entry.getRecipient());
+        message.setSubject(entry.getSubject());
+        message.setText(entry.getBody());
+        return message;
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.tennis_api.service;
+
+import org.example.tennis_api.dto.match.MatchSummaryDTO;
+import org.example.tennis_api.dto.match.TournamentDTO;
+
+import java.util.List;
+
+public interface TournamentService {
+    List<MatchSummaryDTO> generateTournament(TournamentDTO tournamentDTO) throws IllegalArgumentException;
+}
@@ -0,0 +1,166 @@
+package org.example.tennis_api.service;
+
+import org.example.tennis_api.dto.match.MatchSummaryDTO;
+import org.example.tennis_api.dto.match.ParticipantDTO;
+import org.example.tennis_api.dto.match.TournamentDTO;
+import org.example.tennis_api.entity.Match;
+import org.example.tennis_api.entity.PlayerStats;
+import org.example.tennis_api.entity.User;
+import org.example.tennis_api.repository.MatchRepository;
+import org.example.tennis_api.repository.MatchSpecifications;
+import org.example.tennis_api.repository.PlayerStatsRepository;
+import org.example.tennis_api.repository.UserRepository;
+import org.example.tennis_api.utilities.CollectionVersions;
+import org.example.tennis_api.utilities.SlotScheduler;
+import org.example.tennis_api.utilities.TournamentDraw;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class TournamentServiceImpl implements TournamentService {
+
+    private static final int DEFAULT_GROUP_SIZE = 4;
+    private static final int DEFAULT_SLOT_MINUTES = 90;
+    private static final int DEFAULT_SLOTS_PER_DAY = 6;
+    private static final int MAX_PLAYERS = 4096;
+    //group rounds grow with the square of the group size, the total keeps one request from writing an unbounded batch
+    private static final int MAX_GROUP_SIZE = 32;
+    private static final int MAX_MATCHES = 10000;
+
+    private final UserRepository userRepository;
+    private final MatchRepository matchRepository;
+    private final PlayerStatsRepository playerStatsRepository;
+    private final CollectionVersions collectionVersions;
+
+    @Autowired
+    public TournamentServiceImpl(UserRepository userRepository, MatchRepository matchRepository,
+                                 PlayerStatsRepository playerStatsRepository, CollectionVersions collectionVersions) {
+        this.userRepository = userRepository;
+        this.matchRepository = matchRepository;
+        this.playerStatsRepository = playerStatsRepository;
+        this.collectionVersions = collectionVersions;
+    }
+
+    @Override
+    @Transactional
+    public List<MatchSummaryDTO> generateTournament(TournamentDTO tournamentDTO) throws IllegalArgumentException {
+        boolean knockout = validateTournament(tournamentDTO);
+        int groupSize = tournamentDTO.getGroupSize() == null ? DEFAULT_GROUP_SIZE : tournamentDTO.getGroupSize();
+        int slotMinutes = tournamentDTO.getSlotMinutes() == null ? DEFAULT_SLOT_MINUTES : tournamentDTO.getSlotMinutes();
+        int slotsPerDay = tournamentDTO.getSlotsPerDay() == null ? DEFAULT_SLOTS_PER_DAY : tournamentDTO.getSlotsPerDay();
+        if (!knockout && (groupSize < 2 || groupSize > MAX_GROUP_SIZE)) {
+            throw new IllegalArgumentException("Group size must be between 2 and " + MAX_GROUP_SIZE + ".");
+        }
+        if (slotMinutes < 1 || slotsPerDay < 1 ||
+                tournamentDTO.getFirstMatchTime().toSecondOfDay() + (long) (slotsPerDay - 1) * slotMinutes * 60 >= 24 * 60 * 60) {
+            throw new IllegalArgumentException("Match slots must fit within one day.");
+        }
+
+        List<User> players = userRepository.findByIsRegisteredInTournament(true).stream()
+                .filter(user -> user.getUserType().equals("player"))
+                .toList();
+        if (players.size() < 2) {
+            throw new IllegalArgumentException("At least two registered players are needed.");
+        }
+        if (players.size() > MAX_PLAYERS) {
+            throw new IllegalArgumentException("A tournament cannot have more than " + MAX_PLAYERS + " players.");
+        }
+        List<User> referees = userRepository.findByUserType("referee");
+        if (referees.isEmpty()) {
+            throw new IllegalArgumentException("No referees available.");
+        }
+
+        List<Integer> seeds = seed(players);
+        List<List<TournamentDraw.Pairing>> rounds = knockout
+                ? TournamentDraw.knockout(tournamentDTO.getName(), seeds)
+                : TournamentDraw.roundRobin(tournamentDTO.getName(), seeds, groupSize);
+        if (rounds.stream().mapToInt(List::size).sum() > MAX_MATCHES) {
+            throw new IllegalArgumentException("A tournament cannot have more than " + MAX_MATCHES + " matches, use smaller groups.");
+        }
+
+        SlotScheduler scheduler = new SlotScheduler(tournamentDTO.getStartDate(), tournamentDTO.getFirstMatchTime(), slotMinutes, slotsPerDay,
+                tournamentDTO.getCourts(), referees.stream().map(User::getId).toList());
+        //only matches from the start date on can clash, the draw never books anything earlier
+        for (MatchSummaryDTO existing : matchRepository.findSummaries(
+                MatchSpecifications.matchDateFrom(tournamentDTO.getStartDate()), Sort.unsorted())) {
+            scheduler.reserve(existing.getMatchDate(), existing.getMatchTime(), existing.getLocation(),
+                    Stream.of(existing.getReferee(), existing.getPlayer1(), existing.getPlayer2())
+                            .filter(Objects::nonNull)
+                            .map(ParticipantDTO::getId)
+                            .toList());
+        }
+
+        Map<Integer, User> users = Stream.concat(players.stream(), referees.stream())
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<Match> matches = new ArrayList<>();
+        for (List<TournamentDraw.Pairing> round : rounds) {
+            for (SlotScheduler.Booking booking : scheduler.scheduleRound(round)) {
+                matches.add(toMatch(booking, users));
+            }
+        }
+
+        List<Match> savedMatches = matchRepository.saveAll(matches);
+        collectionVersions.bump(CollectionVersions.MATCHES);
+        return savedMatches.stream().map(MatchSummaryDTO::of).toList();
+    }
+
+    //returns true for a knockout draw, false for round-robin groups
+    private boolean validateTournament(TournamentDTO tournamentDTO) throws IllegalArgumentException {
+        if (tournamentDTO.getName() == null || tournamentDTO.getName().trim().isEmpty()) {
+            throw new IllegalArgumentException("Tournament name cannot be empty.");
+        }
+        if (tournamentDTO.getStartDate() == null || tournamentDTO.getStartDate().isBefore(LocalDate.now())) {
+            throw new IllegalArgumentException("Start date cannot be empty or in the past.");
+        }
+        if (tournamentDTO.getFirstMatchTime() == null) {
+            throw new IllegalArgumentException("First match time cannot be null.");
+        }
+        if (tournamentDTO.getCourts() == null || tournamentDTO.getCourts().isEmpty() ||
+                tournamentDTO.getCourts().stream().anyMatch(court -> court == null || court.trim().isEmpty())) {
+            throw new IllegalArgumentException("At least one court is needed and court names cannot be empty.");
+        }
+        if ("knockout".equals(tournamentDTO.getFormat())) {
+            return true;
+        }
+        if ("round-robin".equals(tournamentDTO.getFormat())) {
+            return false;
+        }
+        throw new IllegalArgumentException("Format must be 'knockout' or 'round-robin'.");
+    }
+
+    //leaderboard order first, players without results after them by id
+    private List<Integer> seed(List<User> players) {
+        Map<Integer, PlayerStats> stats = playerStatsRepository.findAllById(players.stream().map(User::getId).toList()).stream()
+                .filter(playerStats -> playerStats.getMatchesPlayed() > 0)
+                .collect(Collectors.toMap(PlayerStats::getPlayerId, Function.identity()));
+        Comparator<Integer> byRanking = Comparator.<Integer, Boolean>comparing(id -> !stats.containsKey(id))
+                .thenComparing(id -> stats.containsKey(id) ? -stats.get(id).getWins() : 0)
+                .thenComparing(id -> stats.containsKey(id) ? -stats.get(id).getPointDifference() : 0)
+                .thenComparing(Comparator.naturalOrder());
+        return players.stream().map(User::getId).sorted(byRanking).toList();
+    }
+
+    private Match toMatch(SlotScheduler.Booking booking, Map<Integer, User> users) {
+        Match match = new Match();
+        match.setName(booking.pairing().name());
+        match.setMatchDate(booking.date());
+        match.setMatchTime(booking.time());
+        match.setLocation(booking.court());
+        match.setReferee(users.get(booking.refereeId()));
+        match.setPlayer1(booking.pairing().player1() == null ? null : users.get(booking.pairing().player1()));
+        match.setPlayer2(booking.pairing().player2() == null ? null : users.get(booking.pairing().player2()));
+        return match;
+    }
+}
@@ -0,0 +1,243 @@
+package org.example.tennis_api.service;
+
+import org.example.tennis_api.dto.user.UserDTO;
+import org.example.tennis_api.dto.user.UserImportErrorDTO;
+import org.example.tennis_api.dto.user.UserImportResultDTO;
+import org.example.tennis_api.entity.User;
+import org.example.tennis_api.exceptions.TooManyRequestsException;
+import org.example.tennis_api.mapper.UserMapper;
+import org.example.tennis_api.repository.UserRepository;
+import org.example.tennis_api.security.BoundedPasswordEncoder;
+import org.example.tennis_api.utilities.CollectionVersions;
+import org.example.tennis_api.utilities.LookupCache;
+import org.example.tennis_api.utilities.UserImportRow;
+import org.example.tennis_api.utilities.UserImportStrategy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+@Service
+public class UserImportService {
+
+    private static final Set<String> USER_TYPES = Set.of("player", "referee", "administrator");
+    private static final int MAX_HASHING_BACKOFFS = 5;
+
+    private final UserRepository userRepository;
+    private final UserMapper userMapper;
+    private final BoundedPasswordEncoder passwordEncoder;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final CollectionVersions collectionVersions;
+    private final LookupCache lookupCache;
+
+    @Autowired
+    public UserImportService(UserRepository userRepository, UserMapper userMapper, BoundedPasswordEncoder passwordEncoder,
+                             PlatformTransactionManager transactionManager, CollectionVersions collectionVersions, LookupCache lookupCache,
+                             @Value("${user.import.chunk-size:500}") int chunkSize) {
+        this.userRepository = userRepository;
+        this.userMapper = userMapper;
+        this.passwordEncoder = passwordEncoder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.collectionVersions = collectionVersions;
+        this.lookupCache = lookupCache;
+    }
+
+    public UserImportResultDTO importUsers(InputStream inputStream, UserImportStrategy strategy) throws IOException {
+        List<UserImportErrorDTO> errors = new ArrayList<>();
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenNames = new HashSet<>();
+        int imported = 0;
+
+        Iterator<UserImportRow> rows = strategy.read(inputStream);
+        List<UserImportRow> chunk = new ArrayList<>(chunkSize);
+        while (rows.hasNext()) {
+            chunk.add(rows.next());
+            if (chunk.size() == chunkSize || !rows.hasNext()) {
+                imported += importChunk(chunk, seenUsernames, seenNames, errors);
+                chunk.clear();
+            }
+        }
+        if (imported > 0) {
+            collectionVersions.bump(CollectionVersions.USERS);
+            lookupCache.evictUserLists();
+        }
+        errors.sort(Comparator.comparing(UserImportErrorDTO::getRow));
+        return new UserImportResultDTO(imported, errors);
+    }
+
+    private int importChunk(List<UserImportRow> chunk, Set<String> seenUsernames, Set<String> seenNames, List<UserImportErrorDTO> errors) {
+        List<UserImportRow> candidates = new ArrayList<>(chunk.size());
+        for (UserImportRow row : chunk) {
+            String error = row.error() != null ? row.error() : validate(row.user());
+            if (error == null && !seenUsernames.add(row.user().getUsername())) {
+                error = "Username appears more than once in the import.";
+            } else if (error == null && !seenNames.add(row.user().getName())) {
+                error = "Name appears more than once in the import.";
+            }
+            if (error != null) {
+                errors.add(errorOf(row, error));
+            } else {
+                candidates.add(row);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return 0;
+        }
+
+        //one query for the whole chunk instead of an existence check per row
+        Set<String> takenUsernames = new HashSet<>();
+        Set<String> takenNames = new HashSet<>();
+        for (User existing : userRepository.findByUsernameInOrNameIn(
+                candidates.stream().map(row -> row.user().getUsername()).toList(),
+                candidates.stream().map(row -> row.user().getName()).toList())) {
+            takenUsernames.add(existing.getUsername());
+            takenNames.add(existing.getName());
+        }
+
+        List<UserImportRow> accepted = new ArrayList<>(candidates.size());
+        for (UserImportRow row : candidates) {
+            if (takenUsernames.contains(row.user().getUsername())) {
+                errors.add(errorOf(row, "Username already exists."));
+            } else if (takenNames.contains(row.user().getName())) {
+                errors.add(errorOf(row, "Name already exists."));
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return 0;
+        }
+
+        List<String> hashes = hash(accepted);
+        List<UserImportRow> hashed = new ArrayList<>(accepted.size());
+        List<User> users = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            if (hashes.get(i) == null) {
+                errors.add(errorOf(accepted.get(i), "Password could not be hashed, retry this row later."));
+            } else {
+                hashed.add(accepted.get(i));
+                users.add(toUser(accepted.get(i).user(), hashes.get(i)));
+            }
+        }
+        if (users.isEmpty()) {
+            return 0;
+        }
+        return persist(hashed, users, errors);
+    }
+
+    //goes through the pool logins hash on, with no more hashes in flight than it has threads so the queue stays free for logins;
+    //when a hash is shed anyway the import waits for its own oldest one, or backs off when it has none, and gives up on the row after that
+    private List<String> hash(List<UserImportRow> rows) {
+        List<CompletableFuture<String>> hashes = new ArrayList<>(rows.size());
+        Deque<CompletableFuture<String>> inFlight = new ArrayDeque<>();
+        for (UserImportRow row : rows) {
+            CompletableFuture<String> hash = submit(row.user().getPassword(), inFlight);
+            if (hash != null) {
+                inFlight.add(hash);
+            }
+            hashes.add(hash);
+        }
+        return hashes.stream().map(hash -> hash == null ? null : hash.exceptionally(e -> null).join()).toList();
+    }
+
+    private CompletableFuture<String> submit(String rawPassword, Deque<CompletableFuture<String>> inFlight) {
+        int backoffs = 0;
+        while (true) {
+            if (inFlight.size() >= passwordEncoder.parallelism()) {
+                awaitQuietly(inFlight.poll());
+            }
+            try {
+                return passwordEncoder.encodeAsync(rawPassword);
+            } catch (TooManyRequestsException e) {
+                if (!inFlight.isEmpty()) {
+                    awaitQuietly(inFlight.poll());
+                } else if (backoffs++ < MAX_HASHING_BACKOFFS) {
+                    sleep(e.getRetryAfter());
+                } else {
+                    return null;
+                }
+            }
+        }
+    }
+
+    private static void awaitQuietly(CompletableFuture<String> hash) {
+        hash.exceptionally(e -> null).join();
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to hash a password.", e);
+        }
+    }
+
+    private User toUser(UserDTO userDTO, String hash) {
+        userDTO.setPassword(hash);
+        User user = userMapper.toEntity(userDTO);
+        if (user.getIsRegisteredInTournament() == null) {
+            user.setIsRegisteredInTournament(false);
+        }
+        if (user.getTournamentRegistrationStatus() == null) {
+            user.setTournamentRegistrationStatus("NONE");
+        }
+        return user;
+    }
+
+    //the chunk goes out as jdbc batches, if a concurrent writer took a username in the meantime the rows are retried one by one
+    private int persist(List<UserImportRow> rows, List<User> users, List<UserImportErrorDTO> errors) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> userRepository.saveAll(users));
+            return users.size();
+        } catch (DataIntegrityViolationException e) {
+            int imported = 0;
+            for (int i = 0; i < users.size(); i++) {
+                User user = users.get(i);
+                user.setId(null);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> userRepository.save(user));
+                    imported++;
+                } catch (DataIntegrityViolationException rowException) {
+                    errors.add(errorOf(rows.get(i), "Username or name already exists."));
+                }
+            }
+            return imported;
+        }
+    }
+
+    private String validate(UserDTO userDTO) {
+        if (isBlank(userDTO.getUsername()) || isBlank(userDTO.getName()) || isBlank(userDTO.getPassword()) || isBlank(userDTO.getEmail())) {
+            return "Username, name, email and password cannot be empty.";
+        }
+        if (userDTO.getUserType() == null || !USER_TYPES.contains(userDTO.getUserType())) {
+            return "User type must be one of player, referee or administrator.";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private static UserImportErrorDTO errorOf(UserImportRow row, String message) {
+        return new UserImportErrorDTO(row.row(), row.user() != null ? row.user().getUsername() : null, message);
+    }
+}
@@ -23,8 +23,9 @@ public interface UserService {
     List<User> findAllUsers();
     User addUser(UserDTO userDTO) throws Exception;
     User updateUser(UserDTO userDTO, Integer id);
+    User patchUser(UserDTO userDTO, Integer id);
     void deleteUser(Integer userId);
-    List<User> filterUsers(String name, String username, Boolean isCompeting);
+    List<User> filterUsers(String name, String username, Boolean isCompeting, Integer page, Integer size) throws IllegalArgumentException;
     User acceptTournamentRegistration(Integer id);
     User rejectTournamentRegistration(Integer id);
     List<User> findUserByStatus(String pending);
@@ -5,12 +5,22 @@ import org.example.tennis_api.dto.user.UserSignInDTO;
 import org.example.tennis_api.dto.user.UserSignUpDTO;
 import org.example.tennis_api.dto.user.UserUpdateCredentialsDTO;
 import org.example.tennis_api.entity.User;
+import org.example.tennis_api.exceptions.TooManyRequestsException;
 import org.example.tennis_api.mapper.UserMapper;
 import org.example.tennis_api.repository.UserRepository;
+import org.example.tennis_api.repository.UserSpecifications;
+import org.example.tennis_api.security.LoginThrottle;
+import org.example.tennis_api.security.PrincipalCache;
+import org.example.tennis_api.utilities.CollectionVersions;
+import org.example.tennis_api.utilities.LookupCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -20,18 +30,32 @@ import java.util.stream.Collectors;
 @Service
 public class UserServiceImpl implements UserService{
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
+    private final NotificationOutboxService notificationOutboxService;
+    private final LeaderboardService leaderboardService;
+    private final CollectionVersions collectionVersions;
+    private final LookupCache lookupCache;
+    private final LoginThrottle loginThrottle;
 
     @Autowired
-    private EmailService emailService;
-
-    @Autowired
-    public UserServiceImpl(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder) {
+    public UserServiceImpl(UserRepository userRepository, UserMapper userMapper, PasswordEncoder passwordEncoder, PrincipalCache principalCache,
+                           NotificationOutboxService notificationOutboxService, LeaderboardService leaderboardService,
+                           CollectionVersions collectionVersions, LookupCache lookupCache, LoginThrottle loginThrottle) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
+        this.principalCache = principalCache;
+        this.notificationOutboxService = notificationOutboxService;
+        this.leaderboardService = leaderboardService;
+        this.collectionVersions = collectionVersions;
+        this.lookupCache = lookupCache;
+        this.loginThrottle = loginThrottle;
     }
 
     private void validateUserCredentials(String username, String name, String password, String email) {
@@ -51,19 +75,44 @@ public class UserServiceImpl implements UserService{
         }
         userSignUpDTO.setPassword(passwordEncoder.encode(userSignUpDTO.getPassword()));
         User user = userMapper.signUpDtoToEntity(userSignUpDTO);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        collectionVersions.bump(CollectionVersions.USERS);
+        lookupCache.evictUser(savedUser.getId(), savedUser.getUserType());
+        return savedUser;
     }
 
     @Override
-    public User loginUser(UserSignInDTO userSignInDTO) throws NoSuchElementException, IllegalArgumentException {
-        User user = userRepository.findByUsername(userSignInDTO.getUsername())
-                .orElseThrow(() -> new NoSuchElementException("User not found."));
+    public User loginUser(UserSignInDTO userSignInDTO) throws NoSuchElementException, IllegalArgumentException, TooManyRequestsException {
+        loginThrottle.check(userSignInDTO.getUsername());
+        Optional<User> found = userRepository.findByUsername(userSignInDTO.getUsername());
+        if (found.isEmpty()) {
+            loginThrottle.recordFailure(userSignInDTO.getUsername());
+            throw new NoSuchElementException("User not found.");
+        }
+        User user = found.get();
         if (!passwordEncoder.matches(userSignInDTO.getPassword(), user.getPassword())) {
+            loginThrottle.recordFailure(userSignInDTO.getUsername());
             throw new IllegalArgumentException("Invalid password.");
         }
+        loginThrottle.recordSuccess(userSignInDTO.getUsername());
+        if (passwordEncoder.upgradeEncoding(user.getPassword())) {
+            rehash(user, userSignInDTO.getPassword());
+        }
         return user;
     }
 
+    //the cost factor was raised since this hash was made, the login has already succeeded so a shed rehash waits for the next one
+    private void rehash(User user, String rawPassword) {
+        try {
+            user.setPassword(passwordEncoder.encode(rawPassword));
+        } catch (TooManyRequestsException e) {
+            return;
+        }
+        userRepository.save(user);
+        collectionVersions.bump(CollectionVersions.USERS);
+        lookupCache.evictUser(user.getId());
+    }
+
     @Override
     public User updateUserCredentials(UserUpdateCredentialsDTO userUpdateCredentialsDTO, Integer id) throws NoSuchElementException, IllegalArgumentException {
         User user = userRepository.findById(id)
@@ -83,15 +132,19 @@ public class UserServiceImpl implements UserService{
             throw new IllegalArgumentException("Name already in use by another account.");
         }
 
+        lookupCache.evictUser(id, user.getUserType());
         user.setUsername(userUpdateCredentialsDTO.getUsername());
         user.setName(userUpdateCredentialsDTO.getName());
         user.setPassword(passwordEncoder.encode(userUpdateCredentialsDTO.getNewPassword()));
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        principalCache.invalidate(id);
+        collectionVersions.bump(CollectionVersions.USERS, CollectionVersions.MATCHES);
+        return savedUser;
     }
 
     @Override
     public Optional<User> findUserById(Integer id) {
-        return userRepository.findById(id);
+        return Optional.ofNullable(lookupCache.user(id, userId -> userRepository.findById(userId).orElse(null)));
     }
 
     @Override
@@ -101,12 +154,12 @@ public class UserServiceImpl implements UserService{
 
     @Override
     public List<User> findUserByRole(String role) {
-        return userRepository.findByUserType(role);
+        return lookupCache.usersByRole(role, userRepository::findByUserType);
     }
 
     @Override
     public List<User> findRegisteredPlayers() {
-        return userRepository.findByIsRegisteredInTournament(true);
+        return lookupCache.registeredPlayers(() -> userRepository.findByIsRegisteredInTournament(true));
     }
 
     @Override
@@ -115,24 +168,33 @@ public class UserServiceImpl implements UserService{
                 .orElseThrow(() -> new NoSuchElementException("User not found."));
         user.setIsRegisteredInTournament(false);
         user.setTournamentRegistrationStatus("NONE");
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        collectionVersions.bump(CollectionVersions.USERS);
+        lookupCache.evictUser(savedUser.getId(), savedUser.getUserType());
+        return savedUser;
     }
 
     @Override
+    @Transactional
     public User requestTournamentRegistration(Integer id) throws NoSuchElementException {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("User not found."));
 
-        if (user.getUserType().equals("player")) {
-            user.setTournamentRegistrationStatus("PENDING");
-            user.setIsRegisteredInTournament(false);
-
-            List<User> admins = userRepository.findByUserType("administrator");
-            List<String> adminEmails = admins.stream().map(User::getEmail).collect(Collectors.toList());
-            emailService.notifyAdmins("New Tournament Registration Request",
-                    "A new tournament registration request has been received from " + user.getName() + " (" + user.getUsername() + ").", adminEmails);
+        if (!user.getUserType().equals("player")) {
+            return userRepository.save(user);
         }
-        return userRepository.save(user);
+
+        user.setTournamentRegistrationStatus("PENDING");
+        user.setIsRegisteredInTournament(false);
+        User savedUser = userRepository.save(user);
+        collectionVersions.bump(CollectionVersions.USERS);
+        lookupCache.evictUser(id, savedUser.getUserType());
+
+        List<User> admins = userRepository.findByUserType("administrator");
+        List<String> adminEmails = admins.stream().map(User::getEmail).collect(Collectors.toList());
+        notificationOutboxService.enqueueAll(adminEmails, "New Tournament Registration Request",
+                "A new tournament registration request has been received from " + user.getName() + " (" + user.getUsername() + ").");
+        return savedUser;
     }
 
     @Override
@@ -148,7 +210,10 @@ public class UserServiceImpl implements UserService{
         }
         userDTO.setPassword(passwordEncoder.encode(userDTO.getPassword()));
         User user = userMapper.toEntity(userDTO);
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        collectionVersions.bump(CollectionVersions.USERS);
+        lookupCache.evictUser(savedUser.getId(), savedUser.getUserType());
+        return savedUser;
     }
 
     @Override
@@ -167,74 +232,152 @@ public class UserServiceImpl implements UserService{
             throw new IllegalArgumentException("Name already in use by another account.");
         }
 
+        lookupCache.evictUser(id, existingUser.getUserType(), userDTO.getUserType());
         existingUser.setUsername(userDTO.getUsername());
         existingUser.setName(userDTO.getName());
-        existingUser.setPassword(passwordEncoder.encode(userDTO.getPassword()));
+        //the admin form sends back the stored hash when the password was left alone
+        if (!userDTO.getPassword().equals(existingUser.getPassword())) {
+            existingUser.setPassword(passwordEncoder.encode(userDTO.getPassword()));
+        }
         existingUser.setEmail(userDTO.getEmail());
         existingUser.setUserType(userDTO.getUserType());
         existingUser.setIsRegisteredInTournament(userDTO.getIsRegisteredInTournament());
         existingUser.setTournamentRegistrationStatus(userDTO.getTournamentRegistrationStatus());
-        return userRepository.save(existingUser);
+        User savedUser = userRepository.save(existingUser);
+        principalCache.invalidate(id);
+        collectionVersions.bump(CollectionVersions.USERS, CollectionVersions.MATCHES);
+        return savedUser;
     }
 
+    //null fields are left as they are, only a supplied password is hashed and only changed columns are written
     @Override
+    @Transactional
+    public User patchUser(UserDTO userDTO, Integer id) throws NoSuchElementException, IllegalArgumentException {
+        User existingUser = userRepository.findById(id)
+                .orElseThrow(() -> new NoSuchElementException("User not found."));
+        if (isBlank(userDTO.getUsername()) || isBlank(userDTO.getName()) || isBlank(userDTO.getEmail())
+                || isBlank(userDTO.getPassword()) || isBlank(userDTO.getUserType()) || isBlank(userDTO.getTournamentRegistrationStatus())) {
+            throw new IllegalArgumentException("Supplied fields cannot be empty.");
+        }
+
+        boolean changed = false;
+        if (userDTO.getUsername() != null && !userDTO.getUsername().equals(existingUser.getUsername())) {
+            Optional<User> userWithSameUsername = userRepository.findByUsername(userDTO.getUsername());
+            if (userWithSameUsername.isPresent() && !userWithSameUsername.get().getId().equals(id)) {
+                throw new IllegalArgumentException("Username already in use by another account.");
+            }
+            existingUser.setUsername(userDTO.getUsername());
+            changed = true;
+        }
+        if (userDTO.getName() != null && !userDTO.getName().equals(existingUser.getName())) {
+            Optional<User> userWithSameName = userRepository.findByName(userDTO.getName());
+            if (userWithSameName.isPresent() && !userWithSameName.get().getId().equals(id)) {
+                throw new IllegalArgumentException("Name already in use by another account.");
+            }
+            existingUser.setName(userDTO.getName());
+            changed = true;
+        }
+        if (userDTO.getEmail() != null && !userDTO.getEmail().equals(existingUser.getEmail())) {
+            existingUser.setEmail(userDTO.getEmail());
+            changed = true;
+        }
+        if (userDTO.getPassword() != null && !userDTO.getPassword().equals(existingUser.getPassword())) {
+            existingUser.setPassword(passwordEncoder.encode(userDTO.getPassword()));
+            changed = true;
+        }
+        String previousType = existingUser.getUserType();
+        if (userDTO.getUserType() != null && !userDTO.getUserType().equals(previousType)) {
+            existingUser.setUserType(userDTO.getUserType());
+            changed = true;
+        }
+        if (userDTO.getIsRegisteredInTournament() != null && !userDTO.getIsRegisteredInTournament().equals(existingUser.getIsRegisteredInTournament())) {
+            existingUser.setIsRegisteredInTournament(userDTO.getIsRegisteredInTournament());
+            changed = true;
+        }
+        if (userDTO.getTournamentRegistrationStatus() != null && !userDTO.getTournamentRegistrationStatus().equals(existingUser.getTournamentRegistrationStatus())) {
+            existingUser.setTournamentRegistrationStatus(userDTO.getTournamentRegistrationStatus());
+            changed = true;
+        }
+        if (!changed) {
+            return existingUser;
+        }
+
+        lookupCache.evictUser(id, previousType, existingUser.getUserType());
+        User savedUser = userRepository.save(existingUser);
+        principalCache.invalidate(id);
+        collectionVersions.bump(CollectionVersions.USERS, CollectionVersions.MATCHES);
+        return savedUser;
+    }
+
+    private static boolean isBlank(String value) {
+        return value != null && value.trim().isEmpty();
+    }
+
+    @Override
+    @Transactional
     public void deleteUser(Integer userId) throws NoSuchElementException{
         if (!userRepository.existsById(userId)) {
             throw new NoSuchElementException("User not found.");
         }
+        leaderboardService.removePlayer(userId);
         userRepository.deleteById(userId);
+        principalCache.invalidate(userId);
+        collectionVersions.bump(CollectionVersions.USERS, CollectionVersions.MATCHES);
+        lookupCache.evictUser(userId);
     }
 
     @Override
-    public List<User> filterUsers(String name, String username, Boolean isCompeting) {
-        List<User> users = userRepository.findByUserType("player");
-
-        if (name != null && !name.isEmpty()) {
-            users = users.stream()
-                    .filter(user -> user.getName().toLowerCase().contains(name.toLowerCase()))
-                    .collect(Collectors.toList());
+    public List<User> filterUsers(String name, String username, Boolean isCompeting, Integer page, Integer size) throws IllegalArgumentException {
+        Specification<User> specification = UserSpecifications.filterPlayers(name, username, isCompeting);
+        //callers that ask for no page get every matching player, the bare list has no metadata to tell them more exist
+        if (page == null && size == null) {
+            return userRepository.findAll(specification, Sort.by("id"));
         }
 
-        if (username != null && !username.isEmpty()) {
-            users = users.stream()
-                    .filter(user -> user.getUsername().toLowerCase().contains(username.toLowerCase()))
-                    .collect(Collectors.toList());
+        int pageNumber = page == null ? 0 : page;
+        int pageSize = size == null ? DEFAULT_PAGE_SIZE : size;
+        if (pageNumber < 0) {
+            throw new IllegalArgumentException("Page number cannot be negative.");
         }
-
-        if (isCompeting != null) {
-            users = users.stream()
-                    .filter(user -> user.getIsRegisteredInTournament() == isCompeting)
-                    .collect(Collectors.toList());
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE + ".");
         }
 
-        return users;
+        return userRepository.findAll(specification, PageRequest.of(pageNumber, pageSize, Sort.by("id"))).getContent();
     }
 
     @Override
+    @Transactional
     public User acceptTournamentRegistration(Integer id) throws NoSuchElementException {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("User not found."));
         user.setIsRegisteredInTournament(true);
         user.setTournamentRegistrationStatus("ACCEPTED");
+        User savedUser = userRepository.save(user);
+        collectionVersions.bump(CollectionVersions.USERS);
+        lookupCache.evictUser(id, savedUser.getUserType());
 
-        emailService.notifyUser(user.getEmail(), "Tournament Registration Accepted",
+        notificationOutboxService.enqueue(user.getEmail(), "Tournament Registration Accepted",
                 "Dear " + user.getName() + ",\n\nYour registration for the tournament has been accepted. Congrats.\n");
 
-        return userRepository.save(user);
+        return savedUser;
     }
 
     @Override
+    @Transactional
     public User rejectTournamentRegistration(Integer id) throws NoSuchElementException {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new NoSuchElementException("User not found."));
         user.setIsRegisteredInTournament(false);
         user.setTournamentRegistrationStatus("REJECTED");
+        User savedUser = userRepository.save(user);
+        collectionVersions.bump(CollectionVersions.USERS);
+        lookupCache.evictUser(id, savedUser.getUserType());
 
-        emailService.notifyUser(user.getEmail(), "Tournament Registration Rejected",
+        notificationOutboxService.enqueue(user.getEmail(), "Tournament Registration Rejected",
                 "Dear " + user.getName() + ",\n\nYour registration for the tournament has been rejected. Sorry not sorry.\n");
 
-
-        return userRepository.save(user);
+        return savedUser;
     }
 
     @Override
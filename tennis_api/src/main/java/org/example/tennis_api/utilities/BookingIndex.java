@@ -0,0 +1,59 @@
+package org.example.tennis_api.utilities;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+//who and which court is booked at each date and time, matches have no duration so a booking is a point and a
+//conflict is the same slot, lookups are O(log n) in the number of booked slots
+public class BookingIndex {
+
+    private record Slot(Map<Integer, Integer> users, Map<String, Integer> locations) {
+    }
+
+    private final TreeMap<LocalDateTime, Slot> slots = new TreeMap<>();
+
+    public void add(Integer matchId, LocalDate date, LocalTime time, String location, Integer... userIds) {
+        Slot slot = slots.computeIfAbsent(LocalDateTime.of(date, time), s -> new Slot(new HashMap<>(), new HashMap<>()));
+        for (Integer userId : userIds) {
+            if (userId != null) {
+                slot.users().put(userId, matchId);
+            }
+        }
+        if (location != null) {
+            slot.locations().put(location.toLowerCase(Locale.ROOT), matchId);
+        }
+    }
+
+    //the first clash with another match, or null when the slot is free for everyone involved
+    public String findConflict(Integer matchId, LocalDate date, LocalTime time, String location,
+                               Integer refereeId, Integer player1Id, Integer player2Id) {
+        Slot slot = slots.get(LocalDateTime.of(date, time));
+        if (slot == null) {
+            return null;
+        }
+        String when = " is already booked on " + date + " at " + time + ".";
+        if (isTaken(slot.users().get(refereeId), matchId)) {
+            return "Referee " + refereeId + when;
+        }
+        if (isTaken(slot.users().get(player1Id), matchId)) {
+            return "Player " + player1Id + when;
+        }
+        if (isTaken(slot.users().get(player2Id), matchId)) {
+            return "Player " + player2Id + when;
+        }
+        if (location != null && isTaken(slot.locations().get(location.toLowerCase(Locale.ROOT)), matchId)) {
+            return "Location '" + location + "'" + when;
+        }
+        return null;
+    }
+
+    private static boolean isTaken(Integer bookedBy, Integer matchId) {
+        return bookedBy != null && (matchId == null || !Objects.equals(bookedBy, matchId));
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.tennis_api.utilities;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+//change counters behind the conditional GET endpoints, the epoch keeps etags from one process or restart from matching another's
+@Component
+public class CollectionVersions {
+
+    public static final String MATCHES = "matches";
+    public static final String USERS = "users";
+
+    private final String epoch = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final Map<String, AtomicReference<Version>> versions = new ConcurrentHashMap<>();
+    private long lastStamp;
+
+    public record Version(long counter, Instant lastModified) {
+    }
+
+    public record Snapshot(String etag, long lastModified) {
+    }
+
+    //taken before the data is read, so a concurrent change can only make the etag older than the body, never newer
+    public Snapshot current(String... collections) {
+        StringBuilder etag = new StringBuilder("\"").append(epoch);
+        Instant lastModified = Instant.EPOCH;
+        for (String collection : collections) {
+            Version version = versionOf(collection).get();
+            etag.append('-').append(version.counter());
+            if (version.lastModified().isAfter(lastModified)) {
+                lastModified = version.lastModified();
+            }
+        }
+        return new Snapshot(etag.append('"').toString(), lastModified.toEpochMilli());
+    }
+
+    //bumped after commit, otherwise a reader could cache the old rows under the new etag
+    public void bump(String... collections) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(collections);
+                }
+            });
+        } else {
+            increment(collections);
+        }
+    }
+
+    private void increment(String... collections) {
+        Instant stamp = nextStamp();
+        for (String collection : collections) {
+            versionOf(collection).updateAndGet(version ->
+                    new Version(version.counter() + 1, stamp.isAfter(version.lastModified()) ? stamp : version.lastModified()));
+        }
+    }
+
+    //every stamp is at least a second past the previous one, so each change moves Last-Modified
+    //and a write in the same second as a read never answers a stale 304
+    private synchronized Instant nextStamp() {
+        lastStamp = Math.max(Instant.now().getEpochSecond(), lastStamp + 1);
+        return Instant.ofEpochSecond(lastStamp);
+    }
+
+    private AtomicReference<Version> versionOf(String collection) {
+        return versions.computeIfAbsent(collection,
+                c -> new AtomicReference<>(new Version(0, nextStamp())));
+    }
+}
@@ -1,33 +1,40 @@
 package org.example.tennis_api.utilities;
 
 import org.example.tennis_api.entity.Match;
+import org.example.tennis_api.entity.User;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.util.List;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 public class CsvExportStrategy implements MatchExportStrategy {
+
+    private static final String HEADER = "Name,Match Date,Match Time,Location,Referee,Player 1,Player 1 Score,Player 2,Player 2 Score\n";
+
     @Override
-    public void export(List<Match> matches, OutputStream outputStream) throws IOException {
-        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outputStream));
-        writer.write("Name,Match Date,Match Time,Location,Referee,Player 1,Player 1 Score,Player 2,Player 2 Score\n");
-
-        for (Match match : matches) {
-            String line = String.format("%s,%s,%s,%s,%s,%s,%d,%s,%d\n",
-                    match.getName(),
-                    match.getMatchDate(),
-                    match.getMatchTime(),
-                    match.getLocation(),
-                    match.getReferee() != null ? match.getReferee().getName() : "N/A",
-                    match.getPlayer1() != null ? match.getPlayer1().getName() : "N/A",
-                    match.getPlayer1Score() != null ? match.getPlayer1Score() : 0,
-                    match.getPlayer2() != null ? match.getPlayer2().getName() : "N/A",
-                    match.getPlayer2Score() != null ? match.getPlayer2Score() : 0);
-            writer.write(line);
+    public void export(Stream<Match> matches, OutputStream outputStream) throws IOException {
+        MatchRowEncoder encoder = new MatchRowEncoder(outputStream);
+        encoder.append(HEADER);
+
+        Iterator<Match> iterator = matches.iterator();
+        while (iterator.hasNext()) {
+            Match match = iterator.next();
+            encoder.appendCsv(match.getName()).append(',')
+                    .append(match.getMatchDate()).append(',')
+                    .append(match.getMatchTime()).append(',')
+                    .appendCsv(match.getLocation()).append(',')
+                    .appendCsv(nameOf(match.getReferee())).append(',')
+                    .appendCsv(nameOf(match.getPlayer1())).append(',')
+                    .append(match.getPlayer1Score() != null ? match.getPlayer1Score() : 0).append(',')
+                    .appendCsv(nameOf(match.getPlayer2())).append(',')
+                    .append(match.getPlayer2Score() != null ? match.getPlayer2Score() : 0).append('\n');
         }
 
-        writer.flush();
+        encoder.flush();
+    }
+
+    private static String nameOf(User user) {
+        return user != null ? user.getName() : "N/A";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,135 @@
+package org.example.tennis_api.utilities;
+
+import org.example.tennis_api.dto.user.UserDTO;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+//reads one record at a time, header names pick the columns so their order does not matter
+public class CsvImportStrategy implements UserImportStrategy {
+
+    @Override
+    public Iterator<UserImportRow> read(InputStream inputStream) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        List<String> header = readRecord(reader);
+        if (header == null) {
+            throw new IllegalArgumentException("Import file is empty.");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        return new Iterator<>() {
+            private int row = 0;
+            private List<String> next = advance();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public UserImportRow next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                List<String> record = next;
+                int current = ++row;
+                next = advance();
+                if (record.size() != header.size()) {
+                    return UserImportRow.failed(current, "Expected " + header.size() + " columns but found " + record.size() + ".");
+                }
+                return UserImportRow.parsed(current, toUser(record, columns));
+            }
+
+            private List<String> advance() {
+                try {
+                    List<String> record;
+                    do {
+                        record = readRecord(reader);
+                    } while (record != null && record.size() == 1 && record.getFirst().isBlank());
+                    return record;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    private static UserDTO toUser(List<String> record, Map<String, Integer> columns) {
+        UserDTO user = new UserDTO();
+        user.setUsername(column(record, columns, "username"));
+        user.setPassword(column(record, columns, "password"));
+        user.setEmail(column(record, columns, "email"));
+        user.setName(column(record, columns, "name"));
+        user.setUserType(column(record, columns, "usertype"));
+        String registered = column(record, columns, "isregisteredintournament");
+        user.setIsRegisteredInTournament(registered != null ? Boolean.valueOf(registered.trim()) : null);
+        user.setTournamentRegistrationStatus(column(record, columns, "tournamentregistrationstatus"));
+        return user;
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null) {
+            return null;
+        }
+        String value = record.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    //RFC 4180 record, quoted fields may contain separators, doubled quotes and line breaks
+    private static List<String> readRecord(BufferedReader reader) throws IOException {
+        String line = reader.readLine();
+        if (line == null) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (!quoted) {
+                break;
+            }
+            line = reader.readLine();
+            if (line == null) {
+                break;
+            }
+            field.append('\n');
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
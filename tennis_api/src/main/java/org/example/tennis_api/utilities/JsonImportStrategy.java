@@ -0,0 +1,72 @@
+package org.example.tennis_api.utilities;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.tennis_api.dto.user.UserDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+//walks a top-level array element by element instead of binding the whole document
+public class JsonImportStrategy implements UserImportStrategy {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Override
+    public Iterator<UserImportRow> read(InputStream inputStream) throws IOException {
+        JsonParser parser = objectMapper.getFactory().createParser(inputStream);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("Import file must contain a JSON array of users.");
+        }
+
+        return new Iterator<>() {
+            private int row = 0;
+            private JsonToken token = advance();
+
+            @Override
+            public boolean hasNext() {
+                return token != JsonToken.END_ARRAY && token != null;
+            }
+
+            @Override
+            public UserImportRow next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int current = ++row;
+                JsonNode node;
+                try {
+                    node = objectMapper.readTree(parser);
+                } catch (JsonParseException e) {
+                    throw new IllegalArgumentException("Malformed JSON at row " + current + ".");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                token = advance();
+                try {
+                    return UserImportRow.parsed(current, objectMapper.treeToValue(node, UserDTO.class));
+                } catch (IOException e) {
+                    return UserImportRow.failed(current, "Invalid user record.");
+                }
+            }
+
+            private JsonToken advance() {
+                try {
+                    return parser.nextToken();
+                } catch (JsonParseException e) {
+                    throw new IllegalArgumentException("Malformed JSON after row " + row + ".");
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+}
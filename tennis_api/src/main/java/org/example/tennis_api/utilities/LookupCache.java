@@ -0,0 +1,115 @@
+package org.example.tennis_api.utilities;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.tennis_api.entity.Match;
+import org.example.tennis_api.entity.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+//read-through cache for the hot id and role lookups, the services evict whatever each mutation touches
+@Component
+public class LookupCache {
+
+    private static final String REGISTERED_PLAYERS = "registered";
+
+    private final Cache<Integer, Match> matches;
+    private final Cache<Integer, User> users;
+    private final Cache<String, List<User>> userLists;
+    private final Cache<Integer, Integer> referees;
+
+    public LookupCache(@Value("${cache.lookup.max-size:10000}") long maxSize,
+                       @Value("${cache.lookup.ttl:PT1M}") Duration ttl,
+                       MeterRegistry meterRegistry) {
+        this.matches = CaffeineCacheMetrics.monitor(meterRegistry, newCache(maxSize, ttl), "lookup.matches");
+        this.users = CaffeineCacheMetrics.monitor(meterRegistry, newCache(maxSize, ttl), "lookup.users");
+        this.userLists = CaffeineCacheMetrics.monitor(meterRegistry, newCache(maxSize, ttl), "lookup.user-lists");
+        this.referees = CaffeineCacheMetrics.monitor(meterRegistry, newCache(maxSize, ttl), "lookup.referees");
+    }
+
+    private static <K, V> Cache<K, V> newCache(long maxSize, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    //a loader returning null is not cached, so missing rows are looked up again
+    public Match match(Integer matchId, Function<Integer, Match> loader) {
+        return matches.get(matchId, loader);
+    }
+
+    public User user(Integer userId, Function<Integer, User> loader) {
+        return users.get(userId, loader);
+    }
+
+    public List<User> usersByRole(String role, Function<String, List<User>> loader) {
+        return userLists.get("role:" + role, key -> List.copyOf(loader.apply(role)));
+    }
+
+    //match id to referee id, a match without a referee is looked up again like a missing one
+    public Integer refereeOf(Integer matchId, Function<Integer, Integer> loader) {
+        return referees.get(matchId, loader);
+    }
+
+    public List<User> registeredPlayers(Supplier<List<User>> loader) {
+        return userLists.get(REGISTERED_PLAYERS, key -> List.copyOf(loader.get()));
+    }
+
+    public void evictMatch(Integer matchId) {
+        evict(() -> {
+            matches.invalidate(matchId);
+            referees.invalidate(matchId);
+        });
+    }
+
+    //the user's own entry, the lists it is in or moves into and the matches embedding it as a participant
+    public void evictUser(Integer userId, String... roles) {
+        evict(() -> {
+            if (userId != null) {
+                users.invalidate(userId);
+            }
+            for (String role : roles) {
+                userLists.invalidate("role:" + role);
+            }
+            userLists.invalidate(REGISTERED_PLAYERS);
+            userLists.asMap().values().removeIf(list -> list.stream().anyMatch(user -> Objects.equals(user.getId(), userId)));
+            matches.asMap().values().removeIf(match -> involves(match, userId));
+            referees.asMap().values().removeIf(refereeId -> Objects.equals(refereeId, userId));
+        });
+    }
+
+    public void evictUserLists() {
+        evict(userLists::invalidateAll);
+    }
+
+    private static boolean involves(Match match, Integer userId) {
+        return (match.getReferee() != null && Objects.equals(match.getReferee().getId(), userId))
+                || (match.getPlayer1() != null && Objects.equals(match.getPlayer1().getId(), userId))
+                || (match.getPlayer2() != null && Objects.equals(match.getPlayer2().getId(), userId));
+    }
+
+    //evicted now and again after commit, otherwise a reader racing the transaction could cache the old row until the ttl
+    private void evict(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
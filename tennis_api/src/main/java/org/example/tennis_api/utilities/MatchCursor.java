@@ -0,0 +1,41 @@
+package org.example.tennis_api.utilities;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.tennis_api.dto.match.MatchSummaryDTO;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@Getter
+@AllArgsConstructor
+public class MatchCursor {
+    private final LocalDate matchDate;
+    private final LocalTime matchTime;
+    private final Integer id;
+
+    public static MatchCursor of(MatchSummaryDTO match) {
+        return new MatchCursor(match.getMatchDate(), match.getMatchTime(), match.getId());
+    }
+
+    public String encode() {
+        String raw = matchDate + "|" + matchTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static MatchCursor decode(String cursor) throws IllegalArgumentException {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            return new MatchCursor(LocalDate.parse(parts[0]), LocalTime.parse(parts[1]), Integer.valueOf(parts[2]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+}
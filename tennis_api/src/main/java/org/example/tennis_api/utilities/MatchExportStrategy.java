@@ -4,8 +4,8 @@ import org.example.tennis_api.entity.Match;
 
 import java.io.IOException;
 import java.io.OutputStream;
-import java.util.List;
+import java.util.stream.Stream;
 
 public interface MatchExportStrategy {
-    void export(List<Match> matches, OutputStream outputStream) throws IOException;
+    void export(Stream<Match> matches, OutputStream outputStream) throws IOException;
 }
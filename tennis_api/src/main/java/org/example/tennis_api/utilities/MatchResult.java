@@ -0,0 +1,27 @@
+package org.example.tennis_api.utilities;
+
+import org.example.tennis_api.dto.match.MatchSummaryDTO;
+import org.example.tennis_api.entity.Match;
+
+import java.util.Objects;
+import java.util.stream.Stream;
+
+//what a match contributes to the leaderboard, only matches with both players and both scores count
+public record MatchResult(Integer player1Id, Integer player1Score, Integer player2Id, Integer player2Score) {
+
+    public static final MatchResult NONE = new MatchResult(null, null, null, null);
+
+    public static MatchResult of(Match match) {
+        return new MatchResult(match.getPlayer1() != null ? match.getPlayer1().getId() : null, match.getPlayer1Score(),
+                match.getPlayer2() != null ? match.getPlayer2().getId() : null, match.getPlayer2Score());
+    }
+
+    public static MatchResult of(MatchSummaryDTO match) {
+        return new MatchResult(match.getPlayer1() != null ? match.getPlayer1().getId() : null, match.getPlayer1Score(),
+                match.getPlayer2() != null ? match.getPlayer2().getId() : null, match.getPlayer2Score());
+    }
+
+    public boolean isComplete() {
+        return Stream.of(player1Id, player1Score, player2Id, player2Score).allMatch(Objects::nonNull);
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.tennis_api.utilities;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+public class MatchRowEncoder implements Flushable {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final Writer writer;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+
+    public MatchRowEncoder(OutputStream outputStream) {
+        this.writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+    }
+
+    public MatchRowEncoder append(char value) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = value;
+        return this;
+    }
+
+    public MatchRowEncoder append(String value) throws IOException {
+        if (value == null) {
+            return this;
+        }
+        int offset = 0;
+        int length = value.length();
+        while (offset < length) {
+            if (position == buffer.length) {
+                drain();
+            }
+            int count = Math.min(length - offset, buffer.length - position);
+            value.getChars(offset, offset + count, buffer, position);
+            position += count;
+            offset += count;
+        }
+        return this;
+    }
+
+    public MatchRowEncoder append(Object value) throws IOException {
+        return value == null ? this : append(value.toString());
+    }
+
+    public MatchRowEncoder append(int value) throws IOException {
+        if (value == Integer.MIN_VALUE) {
+            return append(Integer.toString(value));
+        }
+        if (value < 0) {
+            append('-');
+            value = -value;
+        }
+        int digits = 1;
+        for (int bound = 10; digits < 10 && value >= bound; bound *= 10) {
+            digits++;
+        }
+        if (buffer.length - position < digits) {
+            drain();
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        position += digits;
+        return this;
+    }
+
+    public MatchRowEncoder appendCsv(String value) throws IOException {
+        if (value == null) {
+            return this;
+        }
+        if (!needsQuoting(value)) {
+            return append(value);
+        }
+        append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                append('"');
+            }
+            append(c);
+        }
+        return append('"');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        writer.flush();
+    }
+
+    private void drain() throws IOException {
+        writer.write(buffer, 0, position);
+        position = 0;
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.tennis_api.utilities;
+
+import org.example.tennis_api.dto.match.MatchSummaryDTO;
+
+import java.util.Set;
+
+//published inside the writing transaction, playerIds covers players before and after the change
+public record MatchUpdatedEvent(MatchSummaryDTO match, Set<Integer> playerIds) {
+}
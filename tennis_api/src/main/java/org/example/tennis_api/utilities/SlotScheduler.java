@@ -0,0 +1,131 @@
+package org.example.tennis_api.utilities;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+//places pairings on a grid of match slots so no player, referee or court is booked twice at the same date and time,
+//every round starts after the previous one has finished
+public class SlotScheduler {
+
+    public record Booking(TournamentDraw.Pairing pairing, LocalDate date, LocalTime time, String court, Integer refereeId) {
+    }
+
+    private record Slot(Set<Integer> users, Set<String> courts) {
+    }
+
+    private final LocalDate startDate;
+    private final LocalTime firstMatchTime;
+    private final int slotMinutes;
+    private final int slotsPerDay;
+    private final List<String> courts;
+    private final List<Integer> referees;
+    private final Map<Integer, Slot> slots = new HashMap<>();
+    private int roundStart;
+    private int nextReferee;
+
+    public SlotScheduler(LocalDate startDate, LocalTime firstMatchTime, int slotMinutes, int slotsPerDay,
+                         List<String> courts, List<Integer> referees) {
+        this.startDate = startDate;
+        this.firstMatchTime = firstMatchTime;
+        this.slotMinutes = slotMinutes;
+        this.slotsPerDay = slotsPerDay;
+        this.courts = courts;
+        this.referees = referees;
+    }
+
+    //an existing match, only counted when it falls on one of the grid's slots
+    public void reserve(LocalDate date, LocalTime time, String court, Collection<Integer> userIds) {
+        long day = date.toEpochDay() - startDate.toEpochDay();
+        int offset = time.toSecondOfDay() - firstMatchTime.toSecondOfDay();
+        int slotSeconds = slotMinutes * 60;
+        if (day < 0 || offset < 0 || offset % slotSeconds != 0 || offset / slotSeconds >= slotsPerDay) {
+            return;
+        }
+        Slot slot = slot((int) day * slotsPerDay + offset / slotSeconds);
+        userIds.stream().filter(Objects::nonNull).forEach(slot.users()::add);
+        if (court != null) {
+            slot.courts().add(court.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    public List<Booking> scheduleRound(List<TournamentDraw.Pairing> round) {
+        List<Booking> bookings = new ArrayList<>(round.size());
+        int open = roundStart;
+        int last = roundStart - 1;
+        for (TournamentDraw.Pairing pairing : round) {
+            while (isFull(open)) {
+                open++;
+            }
+            for (int index = open; ; index++) {
+                Booking booking = tryBook(index, pairing);
+                if (booking != null) {
+                    bookings.add(booking);
+                    last = Math.max(last, index);
+                    break;
+                }
+            }
+        }
+        roundStart = last + 1;
+        return bookings;
+    }
+
+    private Booking tryBook(int index, TournamentDraw.Pairing pairing) {
+        Slot slot = slot(index);
+        if ((pairing.player1() != null && slot.users().contains(pairing.player1()))
+                || (pairing.player2() != null && slot.users().contains(pairing.player2()))) {
+            return null;
+        }
+        String court = courts.stream()
+                .filter(c -> !slot.courts().contains(c.toLowerCase(Locale.ROOT)))
+                .findFirst().orElse(null);
+        if (court == null) {
+            return null;
+        }
+        Integer referee = freeReferee(slot);
+        if (referee == null) {
+            return null;
+        }
+
+        slot.courts().add(court.toLowerCase(Locale.ROOT));
+        slot.users().add(referee);
+        if (pairing.player1() != null) {
+            slot.users().add(pairing.player1());
+        }
+        if (pairing.player2() != null) {
+            slot.users().add(pairing.player2());
+        }
+        return new Booking(pairing, startDate.plusDays(index / slotsPerDay),
+                firstMatchTime.plusMinutes((long) (index % slotsPerDay) * slotMinutes), court, referee);
+    }
+
+    //referees take turns so the load is spread over all of them
+    private Integer freeReferee(Slot slot) {
+        for (int i = 0; i < referees.size(); i++) {
+            Integer referee = referees.get((nextReferee + i) % referees.size());
+            if (!slot.users().contains(referee)) {
+                nextReferee = (nextReferee + i + 1) % referees.size();
+                return referee;
+            }
+        }
+        return null;
+    }
+
+    private boolean isFull(int index) {
+        Slot slot = slots.get(index);
+        return slot != null && (courts.stream().allMatch(court -> slot.courts().contains(court.toLowerCase(Locale.ROOT)))
+                || referees.stream().allMatch(slot.users()::contains));
+    }
+
+    private Slot slot(int index) {
+        return slots.computeIfAbsent(index, i -> new Slot(new HashSet<>(), new HashSet<>()));
+    }
+}
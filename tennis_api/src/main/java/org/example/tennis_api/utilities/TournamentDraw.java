@@ -0,0 +1,141 @@
+package org.example.tennis_api.utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+//builds the pairings of a draw round by round, players are given best seed first
+public final class TournamentDraw {
+
+    public record Pairing(String name, Integer player1, Integer player2) {
+    }
+
+    //below this many group matches splitting the groups over the fork-join pool costs more than pairing them
+    private static final int PARALLEL_MIN_MATCHES = 1000;
+
+    private TournamentDraw() {
+    }
+
+    //single elimination, the top seeds get the byes and later rounds are left open for the winners
+    public static List<List<Pairing>> knockout(String name, List<Integer> seeds) {
+        int bracketSize = Integer.highestOneBit(seeds.size() - 1) << 1;
+        int[] order = seedOrder(bracketSize);
+
+        List<List<Pairing>> rounds = new ArrayList<>();
+        List<Pairing> firstRound = new ArrayList<>();
+        Integer[] advancing = new Integer[bracketSize / 2];
+        for (int i = 0; i < bracketSize / 2; i++) {
+            Integer top = seedAt(seeds, order[2 * i]);
+            Integer bottom = seedAt(seeds, order[2 * i + 1]);
+            if (top != null && bottom != null) {
+                firstRound.add(new Pairing(roundName(name, bracketSize / 2, firstRound.size() + 1), top, bottom));
+            } else {
+                advancing[i] = top != null ? top : bottom;
+            }
+        }
+        rounds.add(firstRound);
+
+        for (int matches = bracketSize / 4; matches >= 1; matches /= 2) {
+            List<Pairing> round = new ArrayList<>(matches);
+            for (int i = 0; i < matches; i++) {
+                boolean afterByes = matches == bracketSize / 4;
+                round.add(new Pairing(roundName(name, matches, i + 1),
+                        afterByes ? advancing[2 * i] : null, afterByes ? advancing[2 * i + 1] : null));
+            }
+            rounds.add(round);
+        }
+        return rounds;
+    }
+
+    //groups are filled snake-wise so every group gets a similar spread of seeds, large draws pair each group on its own fork-join task
+    public static List<List<Pairing>> roundRobin(String name, List<Integer> seeds, int groupSize) {
+        int groupCount = (seeds.size() + groupSize - 1) / groupSize;
+        List<List<Integer>> groups = new ArrayList<>(groupCount);
+        for (int g = 0; g < groupCount; g++) {
+            groups.add(new ArrayList<>(groupSize));
+        }
+        for (int i = 0; i < seeds.size(); i++) {
+            int lap = i / groupCount;
+            int position = i % groupCount;
+            groups.get(lap % 2 == 0 ? position : groupCount - 1 - position).add(seeds.get(i));
+        }
+
+        //circle only reads its own group and the ordered toList keeps the groups in draw order, so the result is the same either way
+        IntStream groupIndexes = IntStream.range(0, groupCount);
+        if ((long) groupCount * groupSize * (groupSize - 1) / 2 >= PARALLEL_MIN_MATCHES) {
+            groupIndexes = groupIndexes.parallel();
+        }
+        List<List<List<Pairing>>> groupRounds = groupIndexes
+                .mapToObj(g -> circle(name + " - Group " + groupLabel(g), groups.get(g)))
+                .toList();
+
+        //round r of every group is played together, the groups never share a player
+        int roundCount = groupRounds.stream().mapToInt(List::size).max().orElse(0);
+        List<List<Pairing>> rounds = new ArrayList<>(roundCount);
+        for (int r = 0; r < roundCount; r++) {
+            List<Pairing> round = new ArrayList<>();
+            for (List<List<Pairing>> group : groupRounds) {
+                if (r < group.size()) {
+                    round.addAll(group.get(r));
+                }
+            }
+            rounds.add(round);
+        }
+        return rounds;
+    }
+
+    //circle method, one player stays fixed while the rest rotate, an odd group sits one player out per round
+    private static List<List<Pairing>> circle(String name, List<Integer> players) {
+        List<Integer> ring = new ArrayList<>(players);
+        if (ring.size() % 2 == 1) {
+            ring.add(null);
+        }
+        int size = ring.size();
+        List<List<Pairing>> rounds = new ArrayList<>(size - 1);
+        for (int r = 0; r < size - 1; r++) {
+            List<Pairing> round = new ArrayList<>(size / 2);
+            for (int i = 0; i < size / 2; i++) {
+                Integer home = ring.get(i);
+                Integer away = ring.get(size - 1 - i);
+                if (home != null && away != null) {
+                    round.add(new Pairing(name + " - Round " + (r + 1) + " - Match " + (round.size() + 1), home, away));
+                }
+            }
+            rounds.add(round);
+            ring.add(1, ring.removeLast());
+        }
+        return rounds;
+    }
+
+    //1 v n, 2 v n-1 and so on, placed so the top two seeds can only meet in the final
+    private static int[] seedOrder(int bracketSize) {
+        int[] order = {1};
+        while (order.length < bracketSize) {
+            int[] next = new int[order.length * 2];
+            for (int i = 0; i < order.length; i++) {
+                next[2 * i] = order[i];
+                next[2 * i + 1] = 2 * order.length + 1 - order[i];
+            }
+            order = next;
+        }
+        return order;
+    }
+
+    private static Integer seedAt(List<Integer> seeds, int seed) {
+        return seed <= seeds.size() ? seeds.get(seed - 1) : null;
+    }
+
+    private static String roundName(String name, int matches, int number) {
+        String round = switch (matches) {
+            case 1 -> "Final";
+            case 2 -> "Semifinal";
+            case 4 -> "Quarterfinal";
+            default -> "Round of " + matches * 2;
+        };
+        return matches == 1 ? name + " - " + round : name + " - " + round + " - Match " + number;
+    }
+
+    private static String groupLabel(int group) {
+        return group < 26 ? String.valueOf((char) ('A' + group)) : Integer.toString(group + 1);
+    }
+}
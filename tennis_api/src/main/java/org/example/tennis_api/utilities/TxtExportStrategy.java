@@ -1,32 +1,37 @@
 package org.example.tennis_api.utilities;
 
 import org.example.tennis_api.entity.Match;
+import org.example.tennis_api.entity.User;
 
-import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
-import java.util.List;
+import java.util.Iterator;
+import java.util.stream.Stream;
 
 public class TxtExportStrategy implements MatchExportStrategy {
     @Override
-    public void export(List<Match> matches, OutputStream outputStream) throws IOException {
-        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(outputStream));
+    public void export(Stream<Match> matches, OutputStream outputStream) throws IOException {
+        MatchRowEncoder encoder = new MatchRowEncoder(outputStream);
 
-        for (Match match : matches) {
-            String block = String.format("Match: %s\nDate: %s\nTime: %s\nLocation: %s\nReferee: %s\nPlayer 1: %s\nScore: %d\nPlayer 2: %s\nScore: %d\n\n",
-                    match.getName(),
-                    match.getMatchDate(),
-                    match.getMatchTime(),
-                    match.getLocation(),
-                    match.getReferee() != null ? match.getReferee().getName() : "N/A",
-                    match.getPlayer1() != null ? match.getPlayer1().getName() : "N/A",
-                    match.getPlayer1Score() != null ? match.getPlayer1Score() : 0,
-                    match.getPlayer2() != null ? match.getPlayer2().getName() : "N/A",
-                    match.getPlayer2Score() != null ? match.getPlayer2Score() : 0);
-            writer.write(block);
+        Iterator<Match> iterator = matches.iterator();
+        while (iterator.hasNext()) {
+            Match match = iterator.next();
+            encoder.append("Match: ").append(match.getName())
+                    .append("\nDate: ").append(match.getMatchDate())
+                    .append("\nTime: ").append(match.getMatchTime())
+                    .append("\nLocation: ").append(match.getLocation())
+                    .append("\nReferee: ").append(nameOf(match.getReferee()))
+                    .append("\nPlayer 1: ").append(nameOf(match.getPlayer1()))
+                    .append("\nScore: ").append(match.getPlayer1Score() != null ? match.getPlayer1Score() : 0)
+                    .append("\nPlayer 2: ").append(nameOf(match.getPlayer2()))
+                    .append("\nScore: ").append(match.getPlayer2Score() != null ? match.getPlayer2Score() : 0)
+                    .append("\n\n");
         }
 
-        writer.flush();
+        encoder.flush();
+    }
+
+    private static String nameOf(User user) {
+        return user != null ? user.getName() : "N/A";
     }
 }
@@ -0,0 +1,15 @@
+package org.example.tennis_api.utilities;
+
+import org.example.tennis_api.dto.user.UserDTO;
+
+//one record of an import file, either parsed into a user or carrying the reason it could not be
+public record UserImportRow(int row, UserDTO user, String error) {
+
+    public static UserImportRow parsed(int row, UserDTO user) {
+        return new UserImportRow(row, user, null);
+    }
+
+    public static UserImportRow failed(int row, String error) {
+        return new UserImportRow(row, null, error);
+    }
+}
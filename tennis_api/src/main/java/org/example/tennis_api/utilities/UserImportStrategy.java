@@ -0,0 +1,9 @@
+package org.example.tennis_api.utilities;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+public interface UserImportStrategy {
+    Iterator<UserImportRow> read(InputStream inputStream) throws IOException;
+}
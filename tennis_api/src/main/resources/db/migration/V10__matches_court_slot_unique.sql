@@ -0,0 +1,3 @@
+-- one match per court and slot, backs the service-side conflict check against two concurrent writes to the same court;
+-- a database that already holds double-booked courts needs them moved before this migration can run
+create unique index matches_court_slot_idx on matches (match_date, match_time, lower(location));
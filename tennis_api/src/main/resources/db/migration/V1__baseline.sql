@@ -15,9 +15,6 @@ create table users
     tournament_registration_status varchar(20) default 'NONE'::character varying not null
 );
 
-alter table users
-    owner to postgres;
-
 create table matches
 (
     id            serial
@@ -39,6 +36,3 @@ create table matches
     player2_score integer
 );
 
-alter table matches
-    owner to postgres;
-
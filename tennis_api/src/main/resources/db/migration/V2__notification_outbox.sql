@@ -0,0 +1,9 @@
+create table notification_outbox
+(
+    id         bigserial
+        primary key,
+    recipient  varchar(255) not null,
+    subject    varchar(255) not null,
+    body       text         not null,
+    created_at timestamp    not null
+);
@@ -0,0 +1,24 @@
+-- MatchRepository.findSummariesByRefereeId
+create index matches_referee_date_time_idx on matches (referee_id, match_date, match_time);
+
+-- MatchRepository.findSummariesByPlayerId (player1_id = ? or player2_id = ?, combined with a bitmap or)
+create index matches_player1_idx on matches (player1_id);
+create index matches_player2_idx on matches (player2_id);
+
+-- keyset pages and date range filters, ordered by (match_date, match_time, id)
+create index matches_date_time_id_idx on matches (match_date, match_time, id);
+
+-- MatchSpecifications.locationEqualsIgnoreCase
+create index matches_location_lower_idx on matches (lower(location));
+
+-- UserRepository.findByUserType and UserSpecifications.filterPlayers
+create index users_user_type_registered_idx on users (user_type, tournament_register);
+
+-- UserRepository.findByTournamentRegistrationStatus
+create index users_registration_status_idx on users (tournament_registration_status);
+
+-- UserRepository.findByIsRegisteredInTournament
+create index users_registered_idx on users (tournament_register);
+
+-- UserRepository.findByName
+create index users_name_idx on users (name);
@@ -0,0 +1 @@
+alter sequence matches_id_seq increment by 50;
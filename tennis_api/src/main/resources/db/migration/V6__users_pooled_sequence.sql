@@ -0,0 +1 @@
+alter sequence users_id_seq increment by 50;
@@ -0,0 +1,38 @@
+create table player_stats
+(
+    player_id        integer           not null
+        primary key
+        references users
+            on delete cascade,
+    matches_played   integer default 0 not null,
+    wins             integer default 0 not null,
+    losses           integer default 0 not null,
+    draws            integer default 0 not null,
+    points_for       integer default 0 not null,
+    points_against   integer default 0 not null,
+    point_difference integer default 0 not null
+);
+
+create index player_stats_ranking_idx
+    on player_stats (wins desc, point_difference desc, player_id)
+    where matches_played > 0;
+
+insert into player_stats (player_id, matches_played, wins, losses, draws, points_for, points_against, point_difference)
+select player_id,
+       count(*),
+       count(*) filter (where own > other),
+       count(*) filter (where own < other),
+       count(*) filter (where own = other),
+       sum(own),
+       sum(other),
+       sum(own - other)
+from (select player1_id as player_id, player1_score as own, player2_score as other
+      from matches
+      where player1_id is not null and player2_id is not null
+        and player1_score is not null and player2_score is not null
+      union all
+      select player2_id, player2_score, player1_score
+      from matches
+      where player1_id is not null and player2_id is not null
+        and player1_score is not null and player2_score is not null) results
+group by player_id;
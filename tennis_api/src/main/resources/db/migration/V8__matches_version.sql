@@ -0,0 +1 @@
+alter table matches add column version bigint default 0 not null;
@@ -0,0 +1,6 @@
+alter table notification_outbox
+    add column attempts        integer   not null default 0,
+    add column next_attempt_at timestamp,
+    add column parked_at       timestamp;
+
+create index notification_outbox_pending_idx on notification_outbox (id) where parked_at is null;
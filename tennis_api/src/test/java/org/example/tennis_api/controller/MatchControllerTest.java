@@ -0,0 +1,66 @@
+package org.example.tennis_api.controller;
+
+import org.example.tennis_api.dto.match.MatchSummaryDTO;
+import org.example.tennis_api.service.LiveScoreService;
+import org.example.tennis_api.service.MatchService;
+import org.example.tennis_api.utilities.CollectionVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class MatchControllerTest {
+
+    @Mock
+    private MatchService matchService;
+
+    @Mock
+    private LiveScoreService liveScoreService;
+
+    private CollectionVersions collectionVersions;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        collectionVersions = new CollectionVersions();
+        mockMvc = MockMvcBuilders.standaloneSetup(new MatchController(matchService, liveScoreService, collectionVersions)).build();
+        when(matchService.findAllMatches()).thenReturn(List.of(new MatchSummaryDTO()));
+    }
+
+    @Test
+    void unchangedCollectionAnswersNotModifiedWithoutLoading() throws Exception {
+        MvcResult first = mockMvc.perform(get("/api/match/all"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn();
+        String etag = first.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/match/all").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        verify(matchService, times(1)).findAllMatches();
+    }
+
+    @Test
+    void changedCollectionServesFreshList() throws Exception {
+        String etag = mockMvc.perform(get("/api/match/all")).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        collectionVersions.bump(CollectionVersions.MATCHES);
+
+        mockMvc.perform(get("/api/match/all").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        verify(matchService, times(2)).findAllMatches();
+    }
+}
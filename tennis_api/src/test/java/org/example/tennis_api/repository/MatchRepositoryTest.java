@@ -0,0 +1,182 @@
+package org.example.tennis_api.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.tennis_api.dto.match.MatchSummaryDTO;
+import org.example.tennis_api.entity.Match;
+import org.example.tennis_api.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class MatchRepositoryTest {
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private User referee;
+    private User player;
+
+    @BeforeEach
+    void setUp() {
+        referee = persistUser("referee", "referee");
+        player = persistUser("player", "player");
+        User opponent = persistUser("opponent", "player");
+        for (int i = 0; i < 5; i++) {
+            persistMatch("Match " + i, referee, player, opponent);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findByIdLoadsParticipantsInOneStatement() {
+        Integer id = matchRepository.findAll().getFirst().getId();
+        entityManager.clear();
+        statistics.clear();
+
+        Match match = matchRepository.findById(id).orElseThrow();
+
+        touchParticipants(match);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void streamAllLoadsParticipantsInOneStatement() {
+        try (Stream<Match> matches = matchRepository.streamAll(MatchSpecifications.filter(null, null, null, null, null))) {
+            assertEquals(5, matches.peek(this::touchParticipants).count());
+        }
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void summariesSelectParticipantNamesInOneStatement() {
+        List<MatchSummaryDTO> matches = matchRepository.findSummariesByPlayerId(player.getId());
+
+        assertEquals(5, matches.size());
+        assertEquals("referee name", matches.getFirst().getReferee().getName());
+        assertEquals("player name", matches.getFirst().getPlayer1().getName());
+        assertEquals("opponent name", matches.getFirst().getPlayer2().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void filteredSummariesHonourSortAndLimit() {
+        List<MatchSummaryDTO> matches = matchRepository.findSummaries(MatchSpecifications.filter(null, null, "COURT", referee.getId(), null),
+                Sort.by(Sort.Direction.DESC, "name"), 2);
+
+        assertEquals(2, matches.size());
+        assertEquals("Match 4", matches.getFirst().getName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void summariesFromADateSkipEarlierMatches() {
+        Match earlier = newMatch("Earlier", referee, player, null);
+        earlier.setMatchDate(LocalDate.of(2029, 12, 31));
+        entityManager.persist(earlier);
+        entityManager.flush();
+
+        List<MatchSummaryDTO> matches = matchRepository.findSummaries(MatchSpecifications.matchDateFrom(LocalDate.of(2030, 1, 1)),
+                Sort.unsorted());
+
+        assertEquals(5, matches.size());
+        assertTrue(matches.stream().noneMatch(match -> match.getName().equals("Earlier")));
+    }
+
+    @Test
+    void refereeIdIsReadWithoutLoadingTheMatch() {
+        List<Match> matches = matchRepository.findAll();
+        Integer unrefereedId = matches.getLast().getId();
+        entityManager.getEntityManager().createQuery("update Match m set m.referee = null where m.id = :id")
+                .setParameter("id", unrefereedId)
+                .executeUpdate();
+        entityManager.clear();
+        statistics.clear();
+
+        assertEquals(referee.getId(), matchRepository.findRefereeIdById(matches.getFirst().getId()).orElseThrow());
+        assertTrue(matchRepository.findRefereeIdById(unrefereedId).isEmpty());
+        assertTrue(matchRepository.findRefereeIdById(-1).isEmpty());
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void saveAllInsertsInOneJdbcBatch() {
+        List<Match> matches = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            matches.add(newMatch("Batch " + i, referee, player, null));
+        }
+
+        matchRepository.saveAll(matches);
+        entityManager.flush();
+
+        matches.forEach(match -> assertNotNull(match.getId()));
+        assertEquals(20, statistics.getEntityInsertCount());
+        //the insert batch, plus one sequence call when the ids earlier tests left in the pooled block run out
+        assertTrue(statistics.getPrepareStatementCount() <= 2);
+    }
+
+    private void touchParticipants(Match match) {
+        assertNotNull(match.getReferee().getName());
+        assertNotNull(match.getPlayer1().getName());
+        assertNotNull(match.getPlayer2().getName());
+    }
+
+    private User persistUser(String username, String userType) {
+        User user = new User();
+        user.setUsername(username);
+        user.setName(username + " name");
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setUserType(userType);
+        user.setIsRegisteredInTournament(false);
+        user.setTournamentRegistrationStatus("NONE");
+        return entityManager.persist(user);
+    }
+
+    private void persistMatch(String name, User referee, User player1, User player2) {
+        entityManager.persist(newMatch(name, referee, player1, player2));
+    }
+
+    private Match newMatch(String name, User referee, User player1, User player2) {
+        Match match = new Match();
+        match.setName(name);
+        match.setMatchDate(LocalDate.of(2030, 1, 1));
+        match.setMatchTime(LocalTime.of(10, 0));
+        match.setLocation("Court");
+        match.setReferee(referee);
+        match.setPlayer1(player1);
+        match.setPlayer2(player2);
+        return match;
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.tennis_api.repository;
+
+import org.example.tennis_api.dto.match.LeaderboardEntryDTO;
+import org.example.tennis_api.entity.User;
+import org.example.tennis_api.service.LeaderboardService;
+import org.example.tennis_api.service.LeaderboardServiceImpl;
+import org.example.tennis_api.utilities.MatchResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        //postgres mode for the native on conflict insert of the leaderboard
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:playerstats;MODE=PostgreSQL",
+        "spring.datasource.driver-class-name=org.h2.Driver"
+})
+@Import(LeaderboardServiceImpl.class)
+class PlayerStatsRepositoryTest {
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Integer alice;
+    private Integer bob;
+    private Integer carol;
+
+    @BeforeEach
+    void setUp() {
+        alice = persistPlayer("alice");
+        bob = persistPlayer("bob");
+        carol = persistPlayer("carol");
+        persistPlayer("dave");
+        entityManager.flush();
+    }
+
+    @Test
+    void finishedMatchesBuildTheLeaderboard() {
+        leaderboardService.recordChange(MatchResult.NONE, new MatchResult(alice, 6, bob, 3));
+        leaderboardService.recordChange(MatchResult.NONE, new MatchResult(carol, 6, bob, 4));
+        leaderboardService.recordChange(MatchResult.NONE, new MatchResult(alice, 2, carol, 6));
+        entityManager.clear();
+
+        List<LeaderboardEntryDTO> leaderboard = leaderboardService.findLeaderboard(0, 10);
+
+        assertEquals(List.of(carol, alice, bob), leaderboard.stream().map(LeaderboardEntryDTO::getPlayerId).toList());
+        assertEquals(List.of(1L, 2L, 3L), leaderboard.stream().map(LeaderboardEntryDTO::getRank).toList());
+        assertEquals(2, leaderboard.getFirst().getWins());
+        assertEquals(6, leaderboard.getFirst().getPointDifference());
+        assertEquals("carol name", leaderboard.getFirst().getName());
+    }
+
+    @Test
+    void scoreCorrectionMovesOnlyTheDifference() {
+        leaderboardService.recordChange(MatchResult.NONE, new MatchResult(alice, 6, bob, 3));
+        leaderboardService.recordChange(new MatchResult(alice, 6, bob, 3), new MatchResult(alice, 4, bob, 6));
+        entityManager.clear();
+
+        LeaderboardEntryDTO entry = leaderboardService.findPlayerRank(bob);
+
+        assertEquals(1L, entry.getRank());
+        assertEquals(1, entry.getMatchesPlayed());
+        assertEquals(1, entry.getWins());
+        assertEquals(0, entry.getLosses());
+        assertEquals(2, entry.getPointDifference());
+    }
+
+    @Test
+    void unfinishedMatchesDoNotCount() {
+        leaderboardService.recordChange(MatchResult.NONE, new MatchResult(alice, 6, bob, 3));
+        leaderboardService.recordChange(new MatchResult(alice, 6, bob, 3), new MatchResult(alice, 6, null, null));
+        entityManager.clear();
+
+        assertTrue(leaderboardService.findLeaderboard(0, 10).isEmpty());
+        assertThrows(NoSuchElementException.class, () -> leaderboardService.findPlayerRank(alice));
+    }
+
+    @Test
+    void rankLookupSkipsPlayersBehind() {
+        leaderboardService.recordChange(MatchResult.NONE, new MatchResult(alice, 6, bob, 0));
+        leaderboardService.recordChange(MatchResult.NONE, new MatchResult(carol, 6, bob, 4));
+        entityManager.clear();
+
+        assertEquals(1L, leaderboardService.findPlayerRank(alice).getRank());
+        assertEquals(2L, leaderboardService.findPlayerRank(carol).getRank());
+        assertEquals(3L, leaderboardService.findPlayerRank(bob).getRank());
+        assertEquals(List.of(carol), leaderboardService.findLeaderboard(1, 1).stream().map(LeaderboardEntryDTO::getPlayerId).toList());
+    }
+
+    private Integer persistPlayer(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setName(username + " name");
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setUserType("player");
+        user.setIsRegisteredInTournament(false);
+        user.setTournamentRegistrationStatus("NONE");
+        return entityManager.persist(user).getId();
+    }
+}
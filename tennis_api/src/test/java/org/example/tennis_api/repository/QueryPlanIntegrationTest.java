@@ -0,0 +1,252 @@
+package org.example.tennis_api.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//plans are taken from the sql hibernate generates for the real repository calls, with the values it binds
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=validate")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(QueryPlanIntegrationTest.ExplainConfig.class)
+class QueryPlanIntegrationTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:13.1-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlayerStatsRepository playerStatsRepository;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("""
+                insert into users (id, username, name, password, user_type, tournament_register, email, tournament_registration_status)
+                select i, 'user' || i, 'User ' || i, 'password',
+                       case when i % 1000 = 0 then 'administrator' when i % 10 = 0 then 'referee' else 'player' end,
+                       i % 50 = 0, 'user' || i || '@example.com',
+                       case when i % 500 = 0 then 'PENDING' else 'NONE' end
+                from generate_series(1, 20000) i
+                """);
+        //997 courts against 3650 days and 10 slots never repeat a court in a slot, as matches_court_slot_idx requires
+        jdbcTemplate.execute("""
+                insert into matches (id, name, match_date, match_time, location, referee_id, player1_id, player2_id)
+                select i, 'Match ' || i, date '2030-01-01' + (i % 3650), time '08:00' + (i % 10) * interval '1 hour',
+                       'Court ' || (i % 997), (i % 2000) * 10 + 10, (i * 7) % 20000 + 1, (i * 13) % 20000 + 1
+                from generate_series(1, 50000) i
+                """);
+        jdbcTemplate.execute("""
+                insert into player_stats (player_id, matches_played, wins, losses, draws, points_for, points_against, point_difference)
+                select id, 10, id % 11, 10 - id % 11, 0, 60 + id % 7, 60, id % 7
+                from users where user_type = 'player'
+                """);
+        //ids are given explicitly, the pooled sequences hand out every 50th value so the generated references would miss
+        jdbcTemplate.execute("select setval('users_id_seq', 20000), setval('matches_id_seq', 50000)");
+        jdbcTemplate.execute("analyze users");
+        jdbcTemplate.execute("analyze matches");
+        jdbcTemplate.execute("analyze player_stats");
+        //always plan for the bound values, never a generic plan after repeated executions
+        jdbcTemplate.execute("set plan_cache_mode = force_custom_plan");
+    }
+
+    @Test
+    void matchesByRefereeUseIndex() {
+        assertUsesIndex(() -> matchRepository.findSummariesByRefereeId(20), "matches_referee_date_time_idx");
+    }
+
+    @Test
+    void matchesByPlayerUseIndexes() {
+        String plan = planOf(() -> matchRepository.findSummariesByPlayerId(42));
+        assertTrue(plan.contains("matches_player1_idx") && plan.contains("matches_player2_idx"), plan);
+    }
+
+    @Test
+    void keysetPageUsesIndex() {
+        assertUsesIndex(() -> matchRepository.findSummaries(
+                MatchSpecifications.after(LocalDate.of(2035, 1, 1), LocalTime.of(10, 0), 100, false),
+                Sort.by("matchDate", "matchTime", "id"), 21), "matches_date_time_id_idx");
+    }
+
+    @Test
+    void slotConflictLookupUsesIndex() {
+        //both indexes lead with (match_date, match_time), either answers the equality probes
+        String plan = planOf(() -> matchRepository.findSummaries(MatchSpecifications.atSlots(List.of(
+                LocalDateTime.of(2035, 1, 1, 10, 0), LocalDateTime.of(2035, 1, 2, 11, 0))), Sort.unsorted()));
+        assertTrue(plan.contains("matches_date_time_id_idx") || plan.contains("matches_court_slot_idx"), plan);
+    }
+
+    @Test
+    void matchesByLocationUseIndex() {
+        assertUsesIndex(() -> matchRepository.findSummaries(MatchSpecifications.filter(null, null, "Court 42", null, null), Sort.unsorted()),
+                "matches_location_lower_idx");
+    }
+
+    @Test
+    void usersByTypeUseIndex() {
+        assertUsesIndex(() -> userRepository.findByUserType("administrator"), "users_user_type_registered_idx");
+    }
+
+    @Test
+    void usersByRegistrationStatusUseIndex() {
+        assertUsesIndex(() -> userRepository.findByTournamentRegistrationStatus("PENDING"), "users_registration_status_idx");
+    }
+
+    @Test
+    void playerSearchUsesTrigramIndex() {
+        assertUsesIndex(() -> userRepository.findAll(UserSpecifications.filterPlayers("er 1234", null, null), Sort.by("id")),
+                "users_name_trgm_idx");
+    }
+
+    @Test
+    void leaderboardPageUsesRankingIndex() {
+        assertUsesIndex(() -> playerStatsRepository.findLeaderboard(PageRequest.of(2, 20)), "player_stats_ranking_idx");
+    }
+
+    @Test
+    void rankLookupUsesRankingIndex() {
+        assertUsesIndex(() -> playerStatsRepository.countAhead(9, 3, 500), "player_stats_ranking_idx");
+    }
+
+    private void assertUsesIndex(Runnable repositoryCall, String indexName) {
+        String plan = planOf(repositoryCall);
+        assertTrue(plan.contains(indexName), plan);
+    }
+
+    private String planOf(Runnable repositoryCall) {
+        ExplainingDataSource.plans.clear();
+        ExplainingDataSource.capturing = true;
+        try {
+            repositoryCall.run();
+        } finally {
+            ExplainingDataSource.capturing = false;
+        }
+        assertFalse(ExplainingDataSource.plans.isEmpty(), "the repository call ran no query");
+        return String.join("\n", ExplainingDataSource.plans);
+    }
+
+    @TestConfiguration
+    static class ExplainConfig {
+
+        @Bean
+        static BeanPostProcessor explainingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new ExplainingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    //while capturing, every select hibernate runs is first explained on the same connection with the same bound values
+    static class ExplainingDataSource extends DelegatingDataSource {
+
+        static final List<String> plans = new CopyOnWriteArrayList<>();
+        static volatile boolean capturing;
+
+        ExplainingDataSource(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return explaining(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return explaining(super.getConnection(username, password));
+        }
+
+        private static Connection explaining(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        if (method.getName().equals("prepareStatement") && args[0] instanceof String sql
+                                && sql.stripLeading().toLowerCase().startsWith("select")) {
+                            return explaining(connection, (PreparedStatement) result, sql);
+                        }
+                        return result;
+                    });
+        }
+
+        private static PreparedStatement explaining(Connection connection, PreparedStatement statement, String sql) {
+            List<Object[]> binds = new ArrayList<>();
+            List<Method> setters = new ArrayList<>();
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                            setters.add(method);
+                            binds.add(args);
+                        }
+                        if (method.getName().equals("executeQuery") && capturing) {
+                            plans.add(explain(connection, sql, setters, binds));
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static String explain(Connection connection, String sql, List<Method> setters, List<Object[]> binds) throws Exception {
+            try (PreparedStatement explain = connection.prepareStatement("explain " + sql)) {
+                for (int i = 0; i < setters.size(); i++) {
+                    setters.get(i).invoke(explain, binds.get(i));
+                }
+                List<String> lines = new ArrayList<>();
+                try (ResultSet resultSet = explain.executeQuery()) {
+                    while (resultSet.next()) {
+                        lines.add(resultSet.getString(1));
+                    }
+                }
+                return String.join("\n", lines);
+            }
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.tennis_api.repository;
+
+import org.example.tennis_api.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        persistUser("rafa_nadal", "Rafael Nadal", "player", true);
+        persistUser("roger", "Roger Federer", "player", false);
+        persistUser("100%_novak", "Novak Djokovic", "player", true);
+        persistUser("ref_rafa", "Rafa Referee", "referee", false);
+        entityManager.flush();
+    }
+
+    @Test
+    void filterPlayersByNameIgnoresCaseAndOtherRoles() {
+        List<User> users = findPlayers("RAFA", null, null);
+
+        assertEquals(1, users.size());
+        assertEquals("rafa_nadal", users.getFirst().getUsername());
+    }
+
+    @Test
+    void filterPlayersCombinesUsernameAndCompetingStatus() {
+        assertEquals(2, findPlayers(null, null, true).size());
+        assertEquals(1, findPlayers(null, "ro", false).size());
+        assertTrue(findPlayers(null, "ro", true).isEmpty());
+    }
+
+    @Test
+    void filterPlayersEscapesLikeWildcards() {
+        assertEquals(1, findPlayers(null, "%_", null).size());
+        assertEquals(1, findPlayers(null, "0%", null).size());
+    }
+
+    private List<User> findPlayers(String name, String username, Boolean isCompeting) {
+        return userRepository.findAll(UserSpecifications.filterPlayers(name, username, isCompeting),
+                PageRequest.of(0, 50, Sort.by("id"))).getContent();
+    }
+
+    private void persistUser(String username, String name, String userType, boolean competing) {
+        User user = new User();
+        user.setUsername(username);
+        user.setName(name);
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setUserType(userType);
+        user.setIsRegisteredInTournament(competing);
+        user.setTournamentRegistrationStatus(competing ? "ACCEPTED" : "NONE");
+        entityManager.persist(user);
+    }
+}
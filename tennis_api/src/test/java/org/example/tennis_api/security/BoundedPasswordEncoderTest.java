@@ -0,0 +1,114 @@
+package org.example.tennis_api.security;
+
+import org.example.tennis_api.exceptions.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void virtualThreadsNeverHashOnMoreThanThePoolThreads() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new SlowEncoder(() -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            sleep(5);
+            running.decrementAndGet();
+        }), 2, 100);
+
+        List<Future<Boolean>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 100; i++) {
+                String password = "password" + i;
+                results.add(executor.submit(() -> encoder.matches(password, "hashed-" + password)));
+            }
+        }
+
+        for (Future<Boolean> result : results) {
+            assertTrue(result.get());
+        }
+        assertEquals(2, peak.get());
+        encoder.shutdown();
+    }
+
+    @Test
+    void fullQueueIsShed() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new SlowEncoder(() -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }), 1, 1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<String> running = executor.submit(() -> encoder.encode("first"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<String> queued = executor.submit(() -> encoder.encode("second"));
+            while (encoder.queueDepth() < 1) {
+                Thread.onSpinWait();
+            }
+
+            assertThrows(TooManyRequestsException.class, () -> encoder.encode("third"));
+            assertThrows(TooManyRequestsException.class, () -> encoder.encodeAsync("third"));
+
+            release.countDown();
+            assertEquals("hashed-first", running.get());
+            assertEquals("hashed-second", queued.get());
+        }
+        encoder.shutdown();
+    }
+
+    @Test
+    void upgradeIsAskedForWhenTheCostFactorWasRaised() {
+        String weakHash = new BCryptPasswordEncoder(4).encode("password");
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(5), 1, 1);
+
+        assertTrue(encoder.upgradeEncoding(weakHash));
+        assertTrue(encoder.matches("password", weakHash));
+        assertFalse(encoder.upgradeEncoding(encoder.encode("password")));
+        encoder.shutdown();
+    }
+
+    @Test
+    void atLeastOneThreadIsRequired() {
+        assertThrows(IllegalArgumentException.class, () -> new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 0, 1));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record SlowEncoder(Runnable work) implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            work.run();
+            return "hashed-" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.tennis_api.security;
+
+import org.example.tennis_api.entity.User;
+import org.example.tennis_api.repository.UserRepository;
+import org.example.tennis_api.service.CustomUserDetailsService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JwtRequestFilterTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private JwtUtil jwtUtil;
+
+    @InjectMocks
+    private CustomUserDetailsService customUserDetailsService;
+
+    private PrincipalCache principalCache;
+    private JwtRequestFilter jwtRequestFilter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        principalCache = new PrincipalCache(100, Duration.ofMinutes(1));
+        jwtRequestFilter = new JwtRequestFilter();
+        ReflectionTestUtils.setField(jwtRequestFilter, "customUserDetailsService", customUserDetailsService);
+        ReflectionTestUtils.setField(jwtRequestFilter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(jwtRequestFilter, "principalCache", principalCache);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void tokenOfARenamedUserDoesNotPickUpTheNewOwnerOfItsUsername() throws Exception {
+        //user 1 logged in as alice, then renamed to alicia, and a referee registered as alice
+        when(userRepository.findById(1)).thenReturn(Optional.of(user(1, "alicia", "player")));
+        when(userRepository.findById(2)).thenReturn(Optional.of(user(2, "alice", "referee")));
+        when(userRepository.findByUsername("alice")).thenReturn(Optional.of(user(2, "alice", "referee")));
+
+        assertNull(authenticate("stale", new JwtClaims("alice", 1, "player", null)));
+        assertEquals("alicia", principalCache.get(1, id -> fail("user 1 should be cached")).getUsername());
+
+        Authentication referee = authenticate("fresh", new JwtClaims("alice", 2, "referee", null));
+        assertNotNull(referee);
+        assertEquals(2, ((CustomUserDetails) referee.getPrincipal()).getId());
+        assertEquals("ROLE_REFEREE", referee.getAuthorities().stream().map(GrantedAuthority::getAuthority).findFirst().orElseThrow());
+        verify(userRepository, never()).findByUsername(anyString());
+    }
+
+    private Authentication authenticate(String token, JwtClaims claims) throws Exception {
+        when(jwtUtil.parseAndVerify(token)).thenReturn(claims);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer " + token);
+        SecurityContextHolder.clearContext();
+        jwtRequestFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private static User user(Integer id, String username, String userType) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setPassword("hashed");
+        user.setUserType(userType);
+        return user;
+    }
+}
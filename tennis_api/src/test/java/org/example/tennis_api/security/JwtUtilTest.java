@@ -0,0 +1,48 @@
+package org.example.tennis_api.security;
+
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtil = new JwtUtil();
+    }
+
+    @Test
+    void parseAndVerify() {
+        String token = jwtUtil.generateToken(7, "referee7", "referee");
+
+        JwtClaims claims = jwtUtil.parseAndVerify(token);
+
+        assertEquals("referee7", claims.username());
+        assertEquals(7, claims.userId());
+        assertEquals("referee", claims.userType());
+        assertFalse(claims.isExpired());
+        assertTrue(jwtUtil.validateToken(token, "referee7"));
+    }
+
+    @Test
+    void parseAndVerifyReusesVerifiedClaims() {
+        String token = jwtUtil.generateToken(7, "referee7", "referee");
+
+        JwtClaims first = jwtUtil.parseAndVerify(token);
+        JwtClaims second = jwtUtil.parseAndVerify(token);
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void parseAndVerifyRejectsTamperedToken() {
+        String token = jwtUtil.generateToken(7, "referee7", "referee");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtUtil.parseAndVerify(tampered));
+    }
+}
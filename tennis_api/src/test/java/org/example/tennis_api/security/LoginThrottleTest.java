@@ -0,0 +1,47 @@
+package org.example.tennis_api.security;
+
+import org.example.tennis_api.exceptions.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginThrottleTest {
+
+    @Test
+    void usernameIsLockedAfterTheLimitOnly() {
+        LoginThrottle loginThrottle = new LoginThrottle(3, Duration.ofMinutes(1));
+
+        for (int i = 0; i < 3; i++) {
+            assertDoesNotThrow(() -> loginThrottle.check("player"));
+            loginThrottle.recordFailure("player");
+        }
+
+        TooManyRequestsException exception = assertThrows(TooManyRequestsException.class, () -> loginThrottle.check("player"));
+        assertEquals(Duration.ofMinutes(1), exception.getRetryAfter());
+        assertDoesNotThrow(() -> loginThrottle.check("referee"));
+    }
+
+    @Test
+    void successClearsTheFailures() {
+        LoginThrottle loginThrottle = new LoginThrottle(2, Duration.ofMinutes(1));
+        loginThrottle.recordFailure("player");
+
+        loginThrottle.recordSuccess("player");
+        loginThrottle.recordFailure("player");
+
+        assertDoesNotThrow(() -> loginThrottle.check("player"));
+    }
+
+    @Test
+    void lockoutRunsOut() throws InterruptedException {
+        LoginThrottle loginThrottle = new LoginThrottle(1, Duration.ofMillis(50));
+        loginThrottle.recordFailure("player");
+        assertThrows(TooManyRequestsException.class, () -> loginThrottle.check("player"));
+
+        Thread.sleep(100);
+
+        assertDoesNotThrow(() -> loginThrottle.check("player"));
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.tennis_api.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.tennis_api.repository.MatchRepository;
+import org.example.tennis_api.utilities.LookupCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MatchOwnershipTest {
+
+    @Mock
+    private MatchRepository matchRepository;
+
+    private LookupCache lookupCache;
+    private MatchOwnership matchOwnership;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        lookupCache = new LookupCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+        matchOwnership = new MatchOwnership(matchRepository, lookupCache);
+    }
+
+    @Test
+    void refereeIsLookedUpOnce() {
+        when(matchRepository.findRefereeIdById(1)).thenReturn(Optional.of(7));
+
+        assertTrue(matchOwnership.isReferee(1, 7));
+        assertFalse(matchOwnership.isReferee(1, 8));
+        assertTrue(matchOwnership.isReferee(1, 7));
+
+        verify(matchRepository, times(1)).findRefereeIdById(1);
+        verify(matchRepository, never()).findById(any());
+    }
+
+    @Test
+    void missingMatchOrRefereeIsNeverOwned() {
+        when(matchRepository.findRefereeIdById(anyInt())).thenReturn(Optional.empty());
+
+        assertFalse(matchOwnership.isReferee(1, 7));
+        assertFalse(matchOwnership.isReferee(null, 7));
+        assertFalse(matchOwnership.isReferee(1, null));
+    }
+
+    @Test
+    void matchAndRefereeChangesAreSeen() {
+        when(matchRepository.findRefereeIdById(1)).thenReturn(Optional.of(7));
+        when(matchRepository.findRefereeIdById(2)).thenReturn(Optional.of(7));
+        assertTrue(matchOwnership.isReferee(1, 7));
+        assertTrue(matchOwnership.isReferee(2, 7));
+
+        //the match was reassigned
+        when(matchRepository.findRefereeIdById(1)).thenReturn(Optional.of(8));
+        lookupCache.evictMatch(1);
+        assertTrue(matchOwnership.isReferee(1, 8));
+
+        //the referee was deleted and the foreign key set to null
+        when(matchRepository.findRefereeIdById(2)).thenReturn(Optional.empty());
+        lookupCache.evictUser(7);
+        assertFalse(matchOwnership.isReferee(2, 7));
+    }
+}
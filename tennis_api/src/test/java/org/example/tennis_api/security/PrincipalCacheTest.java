@@ -0,0 +1,43 @@
+package org.example.tennis_api.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrincipalCacheTest {
+
+    private final PrincipalCache principalCache = new PrincipalCache(100, Duration.ofMinutes(1));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void invalidationIsRepeatedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        principalCache.invalidate(1);
+        //a concurrent request still sees the committed row and caches it
+        principalCache.get(1, this::load);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        principalCache.get(1, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    private CustomUserDetails load(Integer id) {
+        loads.incrementAndGet();
+        return new CustomUserDetails(id, "user" + id, "hashed", List.of());
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.tennis_api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailServiceTest {
+
+    private FakeMailSender mailSender;
+    private SimpleMeterRegistry meterRegistry;
+    private EmailService emailService;
+
+    @BeforeEach
+    void setUp() {
+        mailSender = new FakeMailSender();
+        meterRegistry = new SimpleMeterRegistry();
+        emailService = new EmailService(mailSender, meterRegistry);
+    }
+
+    @Test
+    void batchIsSentInOneSession() {
+        Set<SimpleMailMessage> failed = emailService.sendNow(List.of(message("a@example.com"), message("b@example.com")));
+
+        assertTrue(failed.isEmpty());
+        assertEquals(1, mailSender.sessions);
+        assertEquals(2.0, meterRegistry.counter("email.sent").count());
+    }
+
+    @Test
+    void onlyTheRejectedMessagesAreReported() {
+        SimpleMailMessage good = message("good@example.com");
+        SimpleMailMessage bad = message("bad@example.com");
+        mailSender.rejected = bad;
+
+        Set<SimpleMailMessage> failed = emailService.sendNow(List.of(good, bad));
+
+        assertEquals(1, failed.size());
+        assertSame(bad, failed.iterator().next());
+        assertEquals(1.0, meterRegistry.counter("email.sent").count());
+        assertEquals(1.0, meterRegistry.counter("email.failed").count());
+    }
+
+    @Test
+    void failureWithoutDetailsReportsTheWholeBatch() {
+        mailSender.unavailable = true;
+        List<SimpleMailMessage> messages = List.of(message("a@example.com"), message("b@example.com"));
+
+        Set<SimpleMailMessage> failed = emailService.sendNow(messages);
+
+        assertEquals(2, failed.size());
+        assertEquals(2.0, meterRegistry.counter("email.failed").count());
+    }
+
+    private static SimpleMailMessage message(String to) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo(to);
+        message.setSubject("subject");
+        message.setText("text");
+        return message;
+    }
+
+    private static class FakeMailSender extends JavaMailSenderImpl {
+        private int sessions;
+        private SimpleMailMessage rejected;
+        private boolean unavailable;
+
+        @Override
+        public void send(SimpleMailMessage... simpleMessages) {
+            sessions++;
+            if (unavailable) {
+                throw new MailAuthenticationException("SMTP login failed");
+            }
+            if (rejected != null && Arrays.asList(simpleMessages).contains(rejected)) {
+                Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+                failedMessages.put(rejected, new IllegalStateException("550 mailbox unavailable"));
+                throw new MailSendException(failedMessages);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.example.tennis_api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.tennis_api.dto.match.MatchSummaryDTO;
+import org.example.tennis_api.dto.match.ParticipantDTO;
+import org.example.tennis_api.utilities.MatchUpdatedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LiveScoreServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LiveScoreService liveScoreService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        liveScoreService = new LiveScoreService(new ObjectMapper().registerModule(new JavaTimeModule()), meterRegistry,
+                Duration.ofMinutes(1), 4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        liveScoreService.shutdown();
+    }
+
+    @Test
+    void matchAndPlayerSubscribersReceiveUpdates() throws Exception {
+        RecordingEmitter matchViewer = new RecordingEmitter(1);
+        RecordingEmitter playerViewer = new RecordingEmitter(1);
+        RecordingEmitter otherViewer = new RecordingEmitter(1);
+        liveScoreService.subscribeToMatch(1, matchViewer);
+        liveScoreService.subscribeToPlayer(7, playerViewer);
+        liveScoreService.subscribeToMatch(2, otherViewer);
+
+        publish(1, 6, 4, Set.of(7, 8));
+
+        assertTrue(matchViewer.await());
+        assertTrue(playerViewer.await());
+        assertTrue(otherViewer.events.isEmpty());
+        assertTrue(matchViewer.events.getFirst().contains("\"player1Score\":6"));
+    }
+
+    @Test
+    void slowClientKeepsOnlyItsNewestUpdates() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slowViewer = new RecordingEmitter(1) {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(builder);
+            }
+        };
+        RecordingEmitter fastViewer = new RecordingEmitter(1);
+        liveScoreService.subscribeToMatch(1, slowViewer);
+        liveScoreService.subscribeToMatch(1, fastViewer);
+
+        for (int score = 0; score < 20; score++) {
+            publish(1, score, 0, Set.of());
+        }
+
+        //the fast client is not held back by the slow one and ends on the newest score
+        assertTrue(fastViewer.awaitLast("\"player1Score\":19"));
+        release.countDown();
+        assertTrue(slowViewer.awaitLast("\"player1Score\":19"));
+        //at most the one in flight plus a full buffer of the latest scores, everything in between was conflated away
+        assertTrue(slowViewer.events.size() <= 5, slowViewer.events::toString);
+        assertTrue(meterRegistry.counter("live.dropped").count() >= 20 - slowViewer.events.size());
+    }
+
+    @Test
+    void failingClientIsUnsubscribed() throws Exception {
+        SseEmitter brokenViewer = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+        liveScoreService.subscribeToMatch(1, brokenViewer);
+        assertEquals(1, liveScoreService.getSubscriberCount());
+
+        publish(1, 1, 0, Set.of());
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (liveScoreService.getSubscriberCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, liveScoreService.getSubscriberCount());
+    }
+
+    private void publish(Integer matchId, Integer player1Score, Integer player2Score, Set<Integer> playerIds) {
+        MatchSummaryDTO match = new MatchSummaryDTO(matchId, "Final", LocalDate.of(2030, 1, 1), LocalTime.NOON, "Centre Court",
+                null, new ParticipantDTO(7, "Seven"), player1Score, new ParticipantDTO(8, "Eight"), player2Score);
+        liveScoreService.onMatchUpdated(new MatchUpdatedEvent(match, playerIds));
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        private final CountDownLatch received;
+
+        RecordingEmitter(int expected) {
+            this.received = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            StringBuilder event = new StringBuilder();
+            builder.build().forEach(part -> event.append(part.getData()));
+            events.add(event.toString());
+            received.countDown();
+        }
+
+        boolean await() throws InterruptedException {
+            return received.await(5, TimeUnit.SECONDS);
+        }
+
+        boolean awaitLast(String fragment) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (System.nanoTime() < deadline) {
+                if (!events.isEmpty() && events.getLast().contains(fragment)) {
+                    return true;
+                }
+                Thread.sleep(10);
+            }
+            return false;
+        }
+    }
+}
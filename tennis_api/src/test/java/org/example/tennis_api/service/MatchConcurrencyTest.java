@@ -0,0 +1,201 @@
+package org.example.tennis_api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.tennis_api.entity.Match;
+import org.example.tennis_api.entity.PlayerStats;
+import org.example.tennis_api.entity.User;
+import org.example.tennis_api.mapper.MatchMapper;
+import org.example.tennis_api.mapper.ModelMapperConfig;
+import org.example.tennis_api.repository.MatchRepository;
+import org.example.tennis_api.repository.PlayerStatsRepository;
+import org.example.tennis_api.repository.UserRepository;
+import org.example.tennis_api.utilities.CollectionVersions;
+import org.example.tennis_api.utilities.LookupCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//runs the real service against H2 without the test transaction so every thread commits on its own
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        //postgres mode for the native on conflict insert of the leaderboard
+        "spring.test.database.replace=none",
+        "spring.datasource.url=jdbc:h2:mem:matchconcurrency;MODE=PostgreSQL",
+        "spring.datasource.driver-class-name=org.h2.Driver"
+})
+@Import({MatchServiceImpl.class, LeaderboardServiceImpl.class, MatchMapper.class, ModelMapperConfig.class, CollectionVersions.class,
+        LookupCache.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MatchConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private MatchService matchService;
+
+    @Autowired
+    private MatchRepository matchRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlayerStatsRepository playerStatsRepository;
+
+    private final List<User> players = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < THREADS; i++) {
+            players.add(persistPlayer("player" + i));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        playerStatsRepository.deleteAll();
+        matchRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentRegistrationsNeverOverfillAMatch() throws Exception {
+        Integer matchId = persistMatch(null, null).getId();
+        AtomicInteger registered = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(players.stream().map(player -> (Callable<Void>) () -> {
+            try {
+                matchService.registerPlayerToMatch(matchId, player.getId());
+                registered.incrementAndGet();
+            } catch (IllegalArgumentException | OptimisticLockingFailureException e) {
+                rejected.incrementAndGet();
+            }
+            return null;
+        }).toList());
+
+        Match match = matchRepository.findById(matchId).orElseThrow();
+        assertEquals(2, registered.get());
+        assertEquals(THREADS - 2, rejected.get());
+        assertNotNull(match.getPlayer1());
+        assertNotNull(match.getPlayer2());
+        assertNotEquals(match.getPlayer1().getId(), match.getPlayer2().getId());
+        assertEquals(2L, match.getVersion());
+    }
+
+    @Test
+    void concurrentScoreUpdatesKeepLeaderboardInStep() throws Exception {
+        User player1 = players.get(0);
+        User player2 = players.get(1);
+        Integer matchId = persistMatch(player1, player2).getId();
+        AtomicInteger applied = new AtomicInteger();
+
+        List<Callable<Void>> updates = new ArrayList<>();
+        for (int i = 0; i < THREADS * 4; i++) {
+            int score = i;
+            updates.add(() -> {
+                try {
+                    matchService.updateMatchScore(matchId, score % 7, 6);
+                    applied.incrementAndGet();
+                } catch (OptimisticLockingFailureException e) {
+                    //gave up after retries, the write never landed
+                }
+                return null;
+            });
+        }
+        runConcurrently(updates);
+
+        Match match = matchRepository.findById(matchId).orElseThrow();
+        assertEquals(applied.get(), match.getVersion().intValue());
+
+        //whatever write won last, each player has exactly that one finished match counted
+        PlayerStats first = playerStatsRepository.findById(player1.getId()).orElseThrow();
+        PlayerStats second = playerStatsRepository.findById(player2.getId()).orElseThrow();
+        assertEquals(1, first.getMatchesPlayed());
+        assertEquals(1, second.getMatchesPlayed());
+        assertEquals(match.getPlayer1Score(), first.getPointsFor());
+        assertEquals(match.getPlayer2Score(), second.getPointsFor());
+        assertEquals(1, first.getWins() + first.getLosses() + first.getDraws());
+    }
+
+    @Test
+    void concurrentFirstMatchesOfOnePlayerAreAllCounted() throws Exception {
+        User player = players.getFirst();
+        List<Integer> matchIds = players.subList(1, THREADS).stream().map(rival -> persistMatch(player, rival).getId()).toList();
+
+        runConcurrently(matchIds.stream().map(matchId -> (Callable<Void>) () -> {
+            matchService.updateMatchScore(matchId, 6, 3);
+            return null;
+        }).toList());
+
+        PlayerStats stats = playerStatsRepository.findById(player.getId()).orElseThrow();
+        assertEquals(THREADS - 1, stats.getMatchesPlayed());
+        assertEquals(THREADS - 1, stats.getWins());
+        assertEquals(3 * (THREADS - 1), stats.getPointDifference());
+    }
+
+    private void runConcurrently(List<Callable<Void>> tasks) throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (Callable<Void> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return task.call();
+                }));
+            }
+            start.countDown();
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private User persistPlayer(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setName(username + " name");
+        user.setEmail(username + "@example.com");
+        user.setPassword("password");
+        user.setUserType("player");
+        user.setIsRegisteredInTournament(false);
+        user.setTournamentRegistrationStatus("NONE");
+        return userRepository.save(user);
+    }
+
+    private Match persistMatch(User player1, User player2) {
+        Match match = new Match();
+        match.setName("Final");
+        match.setMatchDate(LocalDate.now().plusDays(1));
+        match.setMatchTime(LocalTime.NOON);
+        match.setLocation("Centre Court");
+        match.setPlayer1(player1);
+        match.setPlayer2(player2);
+        return matchRepository.save(match);
+    }
+}
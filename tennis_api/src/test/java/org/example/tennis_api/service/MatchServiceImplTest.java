@@ -1,8 +1,12 @@
 package org.example.tennis_api.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.example.tennis_api.dto.match.MatchDTO;
+import org.example.tennis_api.dto.match.MatchPageDTO;
+import org.example.tennis_api.dto.match.MatchSummaryDTO;
 import org.example.tennis_api.entity.Match;
 import org.example.tennis_api.entity.User;
+import org.example.tennis_api.exceptions.ScheduleConflictException;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -10,16 +14,37 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.example.tennis_api.repository.MatchRepository;
 import org.example.tennis_api.repository.UserRepository;
 import org.example.tennis_api.mapper.MatchMapper;
+import org.example.tennis_api.utilities.CollectionVersions;
+import org.example.tennis_api.utilities.CsvExportStrategy;
+import org.example.tennis_api.utilities.LookupCache;
+import org.example.tennis_api.utilities.MatchCursor;
+import org.example.tennis_api.utilities.MatchResult;
+import org.example.tennis_api.utilities.MatchUpdatedEvent;
 import org.junit.jupiter.api.BeforeEach;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.mockito.Mockito.*;
 
@@ -34,6 +59,18 @@ class MatchServiceImplTest {
     @Mock
     private MatchMapper matchMapper;
 
+    @Mock
+    private LeaderboardService leaderboardService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CollectionVersions collectionVersions;
+
+    @Spy
+    private LookupCache lookupCache = new LookupCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
     @InjectMocks
     private MatchServiceImpl matchService;
 
@@ -55,69 +92,235 @@ class MatchServiceImplTest {
         verify(matchRepository).save(match);
     }
 
+    @Test
+    void createMatchesResolvesUsersInOneLookup() {
+        MatchDTO first = new MatchDTO("first", LocalDate.now().plusDays(1), LocalTime.NOON, "Court 1", 1, 2, null, 3, null);
+        MatchDTO second = new MatchDTO("second", LocalDate.now().plusDays(1), LocalTime.NOON.plusHours(2), "Court 2", 1, 3, null, 2, null);
+        User referee = new User();
+        referee.setId(1);
+        User player1 = new User();
+        player1.setId(2);
+        User player2 = new User();
+        player2.setId(3);
+
+        when(matchMapper.toEntity(any(MatchDTO.class))).thenAnswer(invocation -> new Match());
+        when(userRepository.findAllById(anyIterable())).thenReturn(Arrays.asList(referee, player1, player2));
+        when(matchRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<MatchSummaryDTO> result = matchService.createMatches(Arrays.asList(first, second));
+
+        assertEquals(2, result.size());
+        assertEquals(3, result.get(0).getPlayer2().getId());
+        assertEquals(2, result.get(1).getPlayer2().getId());
+        verify(userRepository, times(1)).findAllById(anyIterable());
+        verify(userRepository, never()).findById(anyInt());
+        verify(matchRepository, never()).save(any(Match.class));
+    }
+
+    @Test
+    void createMatchesRejectsWholeBatchOnInvalidEntry() {
+        MatchDTO valid = new MatchDTO("valid", LocalDate.now().plusDays(1), LocalTime.NOON, "Court 1", null, null, null, null, null);
+        MatchDTO invalid = new MatchDTO("invalid", LocalDate.now().minusDays(1), LocalTime.NOON, "Court 1", null, null, null, null, null);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> matchService.createMatches(Arrays.asList(valid, invalid)));
+
+        assertTrue(e.getMessage().startsWith("Match 2:"));
+        verifyNoInteractions(userRepository);
+        verify(matchRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createMatchesRejectsUnknownUser() {
+        MatchDTO matchDTO = new MatchDTO("match", LocalDate.now().plusDays(1), LocalTime.NOON, "Court 1", 9, null, null, null, null);
+        when(matchMapper.toEntity(any(MatchDTO.class))).thenAnswer(invocation -> new Match());
+        when(userRepository.findAllById(anyIterable())).thenReturn(Collections.emptyList());
+
+        assertThrows(IllegalArgumentException.class, () -> matchService.createMatches(List.of(matchDTO)));
+        verify(matchRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createMatchRejectsRefereeBookedAtSameSlot() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        MatchDTO matchDTO = new MatchDTO("match", date, LocalTime.NOON, "Court 2", 1, null, null, null, null);
+        when(matchRepository.findSummaries(ArgumentMatchers.<Specification<Match>>any(), any(Sort.class))).thenReturn(List.of(
+                new MatchSummaryDTO(7, "booked", date, LocalTime.NOON, "Court 1", 1, "ref", null, null, null, null, null, null)));
+
+        ScheduleConflictException e = assertThrows(ScheduleConflictException.class, () -> matchService.createMatch(matchDTO));
+
+        assertTrue(e.getMessage().startsWith("Referee 1 is already booked"));
+        verify(matchRepository, never()).save(any(Match.class));
+    }
+
+    @Test
+    void updateMatchIgnoresItsOwnBooking() throws Exception {
+        LocalDate date = LocalDate.now().plusDays(1);
+        Match existing = finishedMatch(6, 4);
+        MatchDTO matchDTO = new MatchDTO("match", date, LocalTime.NOON, "court 1", null, 2, 6, 3, 4);
+        when(matchRepository.findById(1)).thenReturn(Optional.of(existing));
+        when(matchRepository.save(existing)).thenReturn(existing);
+        when(matchRepository.findSummaries(ArgumentMatchers.<Specification<Match>>any(), any(Sort.class))).thenReturn(List.of(
+                new MatchSummaryDTO(1, "match", date, LocalTime.NOON, "Court 1", null, null, 2, "p1", 6, 3, "p2", 4)));
+
+        assertSame(existing, matchService.updateMatch(matchDTO, 1));
+
+        when(matchRepository.findSummaries(ArgumentMatchers.<Specification<Match>>any(), any(Sort.class))).thenReturn(List.of(
+                new MatchSummaryDTO(8, "other", date, LocalTime.NOON, "Court 1", null, null, null, null, null, null, null, null)));
+        ScheduleConflictException e = assertThrows(ScheduleConflictException.class, () -> matchService.updateMatch(matchDTO, 1));
+        assertTrue(e.getMessage().startsWith("Location 'court 1'"));
+    }
+
+    @Test
+    void createMatchesRejectsPlayerBookedTwiceInBatch() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        MatchDTO first = new MatchDTO("first", date, LocalTime.NOON, "Court 1", null, 2, null, null, null);
+        MatchDTO second = new MatchDTO("second", date, LocalTime.NOON, "Court 2", null, 3, null, 2, null);
+
+        ScheduleConflictException e = assertThrows(ScheduleConflictException.class,
+                () -> matchService.createMatches(Arrays.asList(first, second)));
+
+        assertEquals("Match 2: Player 2 is already booked on " + date + " at 12:00.", e.getMessage());
+        verify(matchRepository, times(1)).findSummaries(ArgumentMatchers.<Specification<Match>>any(), any(Sort.class));
+        verify(matchRepository, never()).saveAll(anyList());
+    }
+
     @Test
     void registerPlayerToMatch() throws Exception {
         Match match = new Match();
         match.setId(1);
+        match.setVersion(0L);
+        match.setMatchDate(LocalDate.now().plusDays(1));
+        match.setMatchTime(LocalTime.NOON);
         User player = new User();
         player.setId(2);
 
         when(matchRepository.findById(1)).thenReturn(Optional.of(match));
         when(userRepository.findById(2)).thenReturn(Optional.of(player));
-        when(matchRepository.save(any(Match.class))).thenReturn(match);
+        when(matchRepository.claimPlayer1Slot(1, 0L, player)).thenReturn(1);
 
         Match result = matchService.registerPlayerToMatch(1, 2);
 
         assertNotNull(result);
-        assertTrue(result.getPlayer1() == player || result.getPlayer2() == player);
-        verify(matchRepository).save(match);
+        assertSame(player, result.getPlayer1());
+        assertEquals(1L, result.getVersion());
+        verify(matchRepository, never()).save(any(Match.class));
+    }
+
+    @Test
+    void registerPlayerToMatchRetriesWhenSlotIsTakenConcurrently() throws Exception {
+        Match stale = new Match();
+        stale.setId(1);
+        stale.setVersion(0L);
+        stale.setMatchDate(LocalDate.now().plusDays(1));
+        stale.setMatchTime(LocalTime.NOON);
+        User rival = new User();
+        rival.setId(3);
+        Match fresh = new Match();
+        fresh.setId(1);
+        fresh.setVersion(1L);
+        fresh.setMatchDate(LocalDate.now().plusDays(1));
+        fresh.setMatchTime(LocalTime.NOON);
+        fresh.setPlayer1(rival);
+        User player = new User();
+        player.setId(2);
+
+        when(matchRepository.findById(1)).thenReturn(Optional.of(stale)).thenReturn(Optional.of(fresh));
+        when(userRepository.findById(2)).thenReturn(Optional.of(player));
+        when(matchRepository.claimPlayer1Slot(1, 0L, player)).thenReturn(0);
+        when(matchRepository.claimPlayer2Slot(1, 1L, player)).thenReturn(1);
+
+        Match result = matchService.registerPlayerToMatch(1, 2);
+
+        assertSame(rival, result.getPlayer1());
+        assertSame(player, result.getPlayer2());
+    }
+
+    @Test
+    void registerPlayerToMatchRechecksConflictsOnRetry() {
+        LocalDate date = LocalDate.now().plusDays(1);
+        Match stale = new Match();
+        stale.setId(1);
+        stale.setVersion(0L);
+        stale.setMatchDate(date);
+        stale.setMatchTime(LocalTime.NOON);
+        //rescheduled concurrently into a slot where the player already plays
+        Match moved = new Match();
+        moved.setId(1);
+        moved.setVersion(1L);
+        moved.setMatchDate(date);
+        moved.setMatchTime(LocalTime.of(15, 0));
+        User player = new User();
+        player.setId(2);
+
+        when(matchRepository.findById(1)).thenReturn(Optional.of(stale)).thenReturn(Optional.of(moved));
+        when(userRepository.findById(2)).thenReturn(Optional.of(player));
+        when(matchRepository.claimPlayer1Slot(1, 0L, player)).thenReturn(0);
+        when(matchRepository.findSummaries(ArgumentMatchers.<Specification<Match>>any(), any(Sort.class)))
+                .thenReturn(List.of())
+                .thenReturn(List.of(new MatchSummaryDTO(9, "other", date, LocalTime.of(15, 0), "Court 3", null, null, 2, "p", null, 5, "q", null)));
+
+        ScheduleConflictException e = assertThrows(ScheduleConflictException.class, () -> matchService.registerPlayerToMatch(1, 2));
+
+        assertTrue(e.getMessage().startsWith("Player 2 is already booked"));
+        verify(matchRepository, never()).claimPlayer1Slot(1, 1L, player);
+        verify(userRepository, times(1)).findById(2);
+    }
+
+    @Test
+    void registerPlayerToMatchRejectsFullMatch() {
+        Match match = finishedMatch(null, null);
+        when(matchRepository.findById(1)).thenReturn(Optional.of(match));
+
+        assertThrows(IllegalArgumentException.class, () -> matchService.registerPlayerToMatch(1, 4));
+        verify(matchRepository, never()).claimPlayer2Slot(anyInt(), anyLong(), any(User.class));
     }
 
 
     @Test
     void findAllMatches() {
-        List<Match> matches = Collections.singletonList(new Match());
-        when(matchRepository.findAll()).thenReturn(matches);
+        List<MatchSummaryDTO> matches = Collections.singletonList(new MatchSummaryDTO());
+        when(matchRepository.findAllSummaries()).thenReturn(matches);
 
-        List<Match> result = matchService.findAllMatches();
+        List<MatchSummaryDTO> result = matchService.findAllMatches();
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(matchRepository).findAll();
+        verify(matchRepository).findAllSummaries();
     }
 
     @Test
     void findAllMatchesByRefereeId() {
-        List<Match> matches = Collections.singletonList(new Match());
+        List<MatchSummaryDTO> matches = Collections.singletonList(new MatchSummaryDTO());
         User referee = new User();
         referee.setId(1);
         referee.setUserType("referee");
 
         when(userRepository.findById(1)).thenReturn(Optional.of(referee));
-        when(matchRepository.findByReferee(referee)).thenReturn(matches);
+        when(matchRepository.findSummariesByRefereeId(1)).thenReturn(matches);
 
-        List<Match> result = matchService.findAllMatchesByRefereeId(1);
+        List<MatchSummaryDTO> result = matchService.findAllMatchesByRefereeId(1);
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(matchRepository).findByReferee(referee);
+        verify(matchRepository).findSummariesByRefereeId(1);
     }
 
     @Test
     void findAllMatchesByPlayerId() {
-        List<Match> matches = Collections.singletonList(new Match());
+        List<MatchSummaryDTO> matches = Collections.singletonList(new MatchSummaryDTO());
         User player = new User();
         player.setId(1);
         player.setUserType("player");
 
         when(userRepository.findById(1)).thenReturn(Optional.of(player));
-        when(matchRepository.findByPlayer1OrPlayer2(player, player)).thenReturn(matches);
+        when(matchRepository.findSummariesByPlayerId(1)).thenReturn(matches);
 
-        List<Match> result = matchService.findAllMatchesByPlayerId(1);
+        List<MatchSummaryDTO> result = matchService.findAllMatchesByPlayerId(1);
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(matchRepository).findByPlayer1OrPlayer2(player, player);
+        verify(matchRepository).findSummariesByPlayerId(1);
     }
 
     @Test
@@ -135,16 +338,31 @@ class MatchServiceImplTest {
     void updateMatchScore() throws Exception {
         Match match = new Match();
         match.setId(1);
+        match.setVersion(4L);
 
         when(matchRepository.findById(1)).thenReturn(Optional.of(match));
-        when(matchRepository.save(match)).thenReturn(match);
+        when(matchRepository.updateScore(1, 4L, 2, 3)).thenReturn(1);
 
         Match result = matchService.updateMatchScore(1, 2, 3);
 
         assertNotNull(result);
         assertEquals(2, result.getPlayer1Score());
         assertEquals(3, result.getPlayer2Score());
-        verify(matchRepository).save(match);
+        verify(matchRepository).updateScore(1, 4L, 2, 3);
+        verify(matchRepository, never()).save(any(Match.class));
+    }
+
+    @Test
+    void updateMatchScoreGivesUpAfterRepeatedConflicts() {
+        Match match = new Match();
+        match.setId(1);
+        match.setVersion(0L);
+        when(matchRepository.findById(1)).thenReturn(Optional.of(match));
+        when(matchRepository.updateScore(anyInt(), anyLong(), any(), any())).thenReturn(0);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> matchService.updateMatchScore(1, 2, 3));
+        verify(matchRepository, times(5)).updateScore(1, 0L, 2, 3);
+        verifyNoInteractions(leaderboardService);
     }
 
     @Test
@@ -165,11 +383,92 @@ class MatchServiceImplTest {
 
     @Test
     void deleteMatch() throws Exception {
-        when(matchRepository.existsById(1)).thenReturn(true);
+        Match match = finishedMatch(6, 4);
+        when(matchRepository.findById(1)).thenReturn(Optional.of(match));
 
         matchService.deleteMatch(1);
 
-        verify(matchRepository).deleteById(1);
+        verify(matchRepository).delete(match);
+        verify(collectionVersions).bump(CollectionVersions.MATCHES);
+        verify(lookupCache).evictMatch(1);
+        verify(leaderboardService).recordChange(new MatchResult(2, 6, 3, 4), MatchResult.NONE);
+    }
+
+    @Test
+    void findMatchByIdIsServedFromCache() {
+        Match match = finishedMatch(6, 4);
+        User referee = new User();
+        referee.setId(5);
+        match.setReferee(referee);
+        when(matchRepository.findById(1)).thenReturn(Optional.of(match));
+
+        matchService.findMatchById(1);
+        assertEquals(5, matchService.findMatchById(1).getReferee().getId());
+
+        verify(matchRepository, times(1)).findById(1);
+    }
+
+    @Test
+    void scoreUpdateEvictsCachedMatch() throws Exception {
+        when(matchRepository.findById(1)).thenAnswer(invocation -> Optional.of(finishedMatch(6, 4)));
+        when(matchRepository.updateScore(1, 0L, 3, 6)).thenReturn(1);
+        matchService.findMatchById(1);
+
+        matchService.updateMatchScore(1, 3, 6);
+        matchService.findMatchById(1);
+
+        verify(lookupCache).evictMatch(1);
+        verify(matchRepository, times(3)).findById(1);
+    }
+
+    @Test
+    void missingMatchIsNotCached() {
+        when(matchRepository.findById(1)).thenReturn(Optional.empty());
+
+        assertThrows(NoSuchElementException.class, () -> matchService.findMatchById(1));
+        assertThrows(NoSuchElementException.class, () -> matchService.findMatchById(1));
+
+        verify(matchRepository, times(2)).findById(1);
+    }
+
+    @Test
+    void updateMatchScoreRecordsLeaderboardChange() throws Exception {
+        Match match = finishedMatch(6, 4);
+        when(matchRepository.findById(1)).thenReturn(Optional.of(match));
+        when(matchRepository.updateScore(1, 0L, 3, 6)).thenReturn(1);
+
+        matchService.updateMatchScore(1, 3, 6);
+
+        verify(leaderboardService).recordChange(new MatchResult(2, 6, 3, 4), new MatchResult(2, 3, 3, 6));
+    }
+
+    @Test
+    void updateMatchScorePublishesLiveUpdate() throws Exception {
+        Match match = finishedMatch(6, 4);
+        when(matchRepository.findById(1)).thenReturn(Optional.of(match));
+        when(matchRepository.updateScore(1, 0L, 7, 5)).thenReturn(1);
+
+        matchService.updateMatchScore(1, 7, 5);
+
+        ArgumentCaptor<MatchUpdatedEvent> event = ArgumentCaptor.forClass(MatchUpdatedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(7, event.getValue().match().getPlayer1Score());
+        assertEquals(Set.of(2, 3), event.getValue().playerIds());
+    }
+
+    @Test
+    void updateMatchPublishesToPreviousPlayersToo() throws Exception {
+        Match match = finishedMatch(6, 4);
+        MatchDTO matchDTO = new MatchDTO("matchName", LocalDate.now().plusDays(1), LocalTime.NOON, "location", null, 2, 6, null, null);
+        when(matchRepository.findById(1)).thenReturn(Optional.of(match));
+        when(matchRepository.save(match)).thenReturn(match);
+
+        matchService.updateMatch(matchDTO, 1);
+
+        ArgumentCaptor<MatchUpdatedEvent> event = ArgumentCaptor.forClass(MatchUpdatedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertEquals(Set.of(2, 3), event.getValue().playerIds());
+        assertNull(event.getValue().match().getPlayer2());
     }
 
     @Test
@@ -192,28 +491,115 @@ class MatchServiceImplTest {
 
 
     @Test
-    void findMatchRef() {
-        Match match = new Match();
-        User referee = new User();
-        referee.setId(1);
-        match.setReferee(referee);
+    void removePlayerFromMatchRecordsLeaderboardChange() throws Exception {
+        Match match = finishedMatch(6, 4);
         when(matchRepository.findById(1)).thenReturn(Optional.of(match));
+        when(matchRepository.save(match)).thenReturn(match);
 
-        Integer result = matchService.findMatchRef(1);
+        matchService.removePlayerFromMatch(1, 3);
 
-        assertNotNull(result);
-        assertEquals(1, result);
+        verify(leaderboardService).recordChange(new MatchResult(2, 6, 3, 4), new MatchResult(2, 6, null, null));
     }
 
     @Test
     void findMatches() {
-        List<Match> matches = Collections.singletonList(new Match());
-        when(matchRepository.findAll()).thenReturn(matches);
+        List<MatchSummaryDTO> matches = Collections.singletonList(new MatchSummaryDTO());
+        when(matchRepository.findAllSummaries()).thenReturn(matches);
 
-        List<Match> result = matchService.findAllMatches();
+        List<MatchSummaryDTO> result = matchService.findAllMatches();
 
         assertNotNull(result);
         assertEquals(1, result.size());
-        verify(matchRepository).findAll();
+        verify(matchRepository).findAllSummaries();
+    }
+
+    @Test
+    void findMatchesWithFilters() {
+        List<MatchSummaryDTO> matches = Collections.singletonList(new MatchSummaryDTO());
+        when(matchRepository.findSummaries(ArgumentMatchers.<Specification<Match>>any(), any(Sort.class))).thenReturn(matches);
+
+        List<MatchSummaryDTO> result = matchService.findMatches(LocalDate.now(), LocalDate.now().plusDays(7), "Court 1", 1, 2);
+
+        assertNotNull(result);
+        assertEquals(1, result.size());
+        verify(matchRepository).findSummaries(ArgumentMatchers.<Specification<Match>>any(), any(Sort.class));
+        verify(matchRepository, never()).findAll();
+    }
+
+    @Test
+    void findMatchesPage() {
+        MatchSummaryDTO first = new MatchSummaryDTO();
+        first.setId(1);
+        first.setMatchDate(LocalDate.of(2030, 1, 1));
+        first.setMatchTime(LocalTime.of(10, 0));
+        MatchSummaryDTO second = new MatchSummaryDTO();
+        second.setId(2);
+        second.setMatchDate(LocalDate.of(2030, 1, 1));
+        second.setMatchTime(LocalTime.of(12, 0));
+        when(matchRepository.findSummaries(ArgumentMatchers.<Specification<Match>>any(), any(Sort.class), eq(2))).thenReturn(Arrays.asList(first, second));
+
+        MatchPageDTO result = matchService.findMatchesPage(null, null, null, null, null, null, 1, "asc");
+
+        assertEquals(1, result.getMatches().size());
+        assertEquals(first, result.getMatches().getFirst());
+        MatchCursor cursor = MatchCursor.decode(result.getNextCursor());
+        assertEquals(1, cursor.getId());
+        assertEquals(LocalTime.of(10, 0), cursor.getMatchTime());
+    }
+
+    @Test
+    void findMatchesPageRejectsOversizedPage() {
+        assertThrows(IllegalArgumentException.class,
+                () -> matchService.findMatchesPage(null, null, null, null, null, null, 1000, null));
+    }
+
+    @Test
+    void exportMatches() throws Exception {
+        Match match = new Match();
+        match.setName("Final");
+        match.setMatchDate(LocalDate.of(2030, 1, 1));
+        match.setMatchTime(LocalTime.of(10, 0));
+        match.setLocation("Court 1");
+        AtomicBoolean closed = new AtomicBoolean(false);
+        when(matchRepository.streamAll(ArgumentMatchers.<Specification<Match>>any())).thenReturn(Stream.of(match).onClose(() -> closed.set(true)));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        matchService.exportMatches(null, null, null, null, null, outputStream, new CsvExportStrategy());
+
+        String csv = outputStream.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.contains("Final,2030-01-01,10:00,Court 1"));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void exportMatchesQuotesCsvFields() throws Exception {
+        Match match = new Match();
+        match.setName("Semi \"A\"");
+        match.setMatchDate(LocalDate.of(2030, 1, 1));
+        match.setMatchTime(LocalTime.of(10, 0));
+        match.setLocation("Court 1, Centre");
+        match.setPlayer1Score(-12);
+        when(matchRepository.streamAll(ArgumentMatchers.<Specification<Match>>any())).thenReturn(Stream.of(match));
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        matchService.exportMatches(null, null, null, null, null, outputStream, new CsvExportStrategy());
+
+        String csv = outputStream.toString(StandardCharsets.UTF_8);
+        assertTrue(csv.endsWith("\"Semi \"\"A\"\"\",2030-01-01,10:00,\"Court 1, Centre\",N/A,N/A,-12,N/A,0\n"));
+    }
+
+    private Match finishedMatch(Integer player1Score, Integer player2Score) {
+        User player1 = new User();
+        player1.setId(2);
+        User player2 = new User();
+        player2.setId(3);
+        Match match = new Match();
+        match.setId(1);
+        match.setVersion(0L);
+        match.setPlayer1(player1);
+        match.setPlayer2(player2);
+        match.setPlayer1Score(player1Score);
+        match.setPlayer2Score(player2Score);
+        return match;
     }
-}
\ No newline at end of file
+}
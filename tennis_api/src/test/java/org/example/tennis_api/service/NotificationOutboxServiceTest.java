@@ -0,0 +1,134 @@
+package org.example.tennis_api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.tennis_api.entity.NotificationOutbox;
+import org.example.tennis_api.repository.NotificationOutboxRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class NotificationOutboxServiceTest {
+
+    @Mock
+    private NotificationOutboxRepository outboxRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationOutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        outboxService = new NotificationOutboxService(outboxRepository, emailService, transactionManager, meterRegistry, 100, 3,
+                Duration.ofSeconds(30), Duration.ofMinutes(5));
+    }
+
+    @Test
+    void enqueue() {
+        outboxService.enqueue("user@example.com", "subject", "body");
+
+        verify(outboxRepository).save(any(NotificationOutbox.class));
+        verifyNoInteractions(emailService);
+    }
+
+    @Test
+    void queueDepthIsReadFromTheOutbox() {
+        when(outboxRepository.countByParkedAtIsNull()).thenReturn(12L);
+        when(outboxRepository.countByParkedAtIsNotNull()).thenReturn(2L);
+
+        assertEquals(12.0, meterRegistry.get("notification.outbox.pending").gauge().value());
+        assertEquals(2.0, meterRegistry.get("notification.outbox.parked").gauge().value());
+
+        when(outboxRepository.countByParkedAtIsNull()).thenReturn(0L);
+        assertEquals(0.0, meterRegistry.get("notification.outbox.pending").gauge().value());
+    }
+
+    @Test
+    void drainSendsAfterTheClaimCommitsAndDeletesDelivered() {
+        NotificationOutbox entry = entry(1L, "user@example.com", 0);
+        when(outboxRepository.findDueForUpdate(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(entry));
+        when(emailService.sendNow(anyList())).thenAnswer(invocation -> {
+            //the claim transaction has committed before smtp is touched
+            verify(transactionManager).commit(any());
+            return Set.of();
+        });
+
+        outboxService.drain();
+
+        assertTrue(entry.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(outboxRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void partialFailureDeletesDeliveredAndBacksOffTheRest() {
+        NotificationOutbox delivered = entry(1L, "good@example.com", 0);
+        NotificationOutbox failed = entry(2L, "bad@example.com", 0);
+        when(outboxRepository.findDueForUpdate(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(delivered, failed));
+        when(emailService.sendNow(anyList())).thenAnswer(invocation -> {
+            List<SimpleMailMessage> messages = invocation.getArgument(0);
+            return Set.of(messages.get(1));
+        });
+
+        outboxService.drain();
+
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(outboxRepository).saveAll(List.of(failed));
+        assertEquals(1, failed.getAttempts());
+        assertNull(failed.getParkedAt());
+        assertTrue(failed.getNextAttemptAt().isAfter(LocalDateTime.now().plusSeconds(20)));
+    }
+
+    @Test
+    void rowIsParkedAfterMaxAttempts() {
+        NotificationOutbox entry = entry(1L, "bad@example.com", 2);
+        when(outboxRepository.findDueForUpdate(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(entry));
+        when(emailService.sendNow(anyList())).thenAnswer(invocation -> Set.copyOf(invocation.<List<SimpleMailMessage>>getArgument(0)));
+
+        outboxService.drain();
+
+        assertEquals(3, entry.getAttempts());
+        assertNotNull(entry.getParkedAt());
+        verify(outboxRepository).saveAll(List.of(entry));
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void emptyOutboxSendsNothing() {
+        when(outboxRepository.findDueForUpdate(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of());
+
+        outboxService.drain();
+
+        verifyNoInteractions(emailService);
+    }
+
+    private static NotificationOutbox entry(Long id, String recipient, int attempts) {
+        NotificationOutbox entry = new NotificationOutbox();
+        entry.setId(id);
+        entry.setRecipient(recipient);
+        entry.setSubject("subject");
+        entry.setBody("body");
+        entry.setAttempts(attempts);
+        return entry;
+    }
+}
@@ -0,0 +1,199 @@
+package org.example.tennis_api.service;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.example.tennis_api.dto.match.MatchSummaryDTO;
+import org.example.tennis_api.dto.match.ParticipantDTO;
+import org.example.tennis_api.dto.match.TournamentDTO;
+import org.example.tennis_api.entity.Match;
+import org.example.tennis_api.entity.PlayerStats;
+import org.example.tennis_api.entity.User;
+import org.example.tennis_api.repository.MatchRepository;
+import org.example.tennis_api.repository.PlayerStatsRepository;
+import org.example.tennis_api.repository.UserRepository;
+import org.example.tennis_api.utilities.CollectionVersions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TournamentServiceImplTest {
+
+    private static final LocalDate START = LocalDate.now().plusDays(7);
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private MatchRepository matchRepository;
+
+    @Mock
+    private PlayerStatsRepository playerStatsRepository;
+
+    @Mock
+    private CollectionVersions collectionVersions;
+
+    @InjectMocks
+    private TournamentServiceImpl tournamentService;
+
+    @Mock
+    private Root<Match> root;
+
+    @Mock
+    private CriteriaQuery<?> query;
+
+    @Mock
+    private CriteriaBuilder criteriaBuilder;
+
+    @Mock
+    private Path<LocalDate> matchDate;
+
+    @Captor
+    private ArgumentCaptor<List<Match>> saved;
+
+    @Captor
+    private ArgumentCaptor<Specification<Match>> bookings;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        List<User> players = new ArrayList<>();
+        for (int id = 1; id <= 4; id++) {
+            players.add(user(id, "player"));
+        }
+        players.add(user(5, "referee"));
+        when(userRepository.findByIsRegisteredInTournament(true)).thenReturn(players);
+        when(userRepository.findByUserType("referee")).thenReturn(List.of(user(10, "referee"), user(11, "referee")));
+        when(matchRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void knockoutIsSeededFromLeaderboardAndSavedInOneBatch() {
+        when(playerStatsRepository.findAllById(anyIterable())).thenReturn(List.of(stats(4, 3, 10), stats(2, 3, 4)));
+        when(matchRepository.findSummaries(ArgumentMatchers.<Specification<Match>>any(), any(Sort.class))).thenReturn(List.of());
+
+        List<MatchSummaryDTO> result = tournamentService.generateTournament(tournament("knockout"));
+
+        assertEquals(3, result.size());
+        //seeds 4, 2, 1, 3: 1 v 4 and 2 v 3 in seed numbers
+        assertEquals(List.of(4, 3), List.of(result.get(0).getPlayer1().getId(), result.get(0).getPlayer2().getId()));
+        assertEquals(List.of(2, 1), List.of(result.get(1).getPlayer1().getId(), result.get(1).getPlayer2().getId()));
+        assertEquals("Spring Cup - Final", result.get(2).getName());
+        assertNull(result.get(2).getPlayer1());
+        assertTrue(LocalTime.of(9, 0).isBefore(result.get(2).getMatchTime()));
+        verify(matchRepository, times(1)).saveAll(anyList());
+        verify(collectionVersions).bump(CollectionVersions.MATCHES);
+    }
+
+    @Test
+    void matchesBeforeTheStartDateAreNotLoaded() {
+        when(playerStatsRepository.findAllById(anyIterable())).thenReturn(List.of());
+        when(matchRepository.findSummaries(ArgumentMatchers.<Specification<Match>>any(), any(Sort.class))).thenReturn(List.of());
+
+        tournamentService.generateTournament(tournament("knockout"));
+        verify(matchRepository).findSummaries(bookings.capture(), any(Sort.class));
+        doReturn(matchDate).when(root).get("matchDate");
+        bookings.getValue().toPredicate(root, query, criteriaBuilder);
+
+        verify(criteriaBuilder).greaterThanOrEqualTo(matchDate, START);
+        verifyNoMoreInteractions(criteriaBuilder);
+    }
+
+    @Test
+    void existingBookingsAreWorkedAround() {
+        when(playerStatsRepository.findAllById(anyIterable())).thenReturn(List.of());
+        when(matchRepository.findSummaries(ArgumentMatchers.<Specification<Match>>any(), any(Sort.class))).thenReturn(List.of(
+                new MatchSummaryDTO(99, "Friendly", START, LocalTime.of(9, 0), "centre court",
+                        new ParticipantDTO(10, "ref"), new ParticipantDTO(1, "p1"), null, null, null)));
+
+        tournamentService.generateTournament(tournament("round-robin"));
+        verify(matchRepository).saveAll(saved.capture());
+
+        for (Match match : saved.getValue()) {
+            if (match.getMatchDate().equals(START) && match.getMatchTime().equals(LocalTime.of(9, 0))) {
+                assertNotEquals("Centre Court", match.getLocation());
+                assertEquals(11, match.getReferee().getId());
+                assertNotEquals(1, match.getPlayer1().getId());
+                assertNotEquals(1, match.getPlayer2().getId());
+            }
+        }
+        assertEquals(6, saved.getValue().size());
+    }
+
+    @Test
+    void invalidTournamentIsRejected() {
+        TournamentDTO tournamentDTO = tournament("swiss");
+        assertThrows(IllegalArgumentException.class, () -> tournamentService.generateTournament(tournamentDTO));
+
+        TournamentDTO lateSlots = tournament("knockout");
+        lateSlots.setFirstMatchTime(LocalTime.of(20, 0));
+        assertThrows(IllegalArgumentException.class, () -> tournamentService.generateTournament(lateSlots));
+
+        when(userRepository.findByUserType("referee")).thenReturn(List.of());
+        assertThrows(IllegalArgumentException.class, () -> tournamentService.generateTournament(tournament("knockout")));
+        verify(matchRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void oversizedGroupsAreRejectedBeforeDrawing() {
+        TournamentDTO tournamentDTO = tournament("round-robin");
+        tournamentDTO.setGroupSize(33);
+
+        assertThrows(IllegalArgumentException.class, () -> tournamentService.generateTournament(tournamentDTO));
+        verify(userRepository, never()).findByIsRegisteredInTournament(anyBoolean());
+    }
+
+    @Test
+    void drawWithTooManyMatchesIsRejectedBeforeScheduling() {
+        List<User> players = new ArrayList<>();
+        for (int id = 1; id <= 1000; id++) {
+            players.add(user(id, "player"));
+        }
+        when(userRepository.findByIsRegisteredInTournament(true)).thenReturn(players);
+        when(playerStatsRepository.findAllById(anyIterable())).thenReturn(List.of());
+        TournamentDTO tournamentDTO = tournament("round-robin");
+        tournamentDTO.setGroupSize(32);
+
+        assertThrows(IllegalArgumentException.class, () -> tournamentService.generateTournament(tournamentDTO));
+        verify(matchRepository, never()).findSummaries(ArgumentMatchers.<Specification<Match>>any(), any(Sort.class));
+        verify(matchRepository, never()).saveAll(anyList());
+    }
+
+    private static TournamentDTO tournament(String format) {
+        return new TournamentDTO("Spring Cup", format, 4, START, LocalTime.of(9, 0), 90, 6, List.of("Centre Court", "Court 2"));
+    }
+
+    private static User user(Integer id, String userType) {
+        User user = new User();
+        user.setId(id);
+        user.setName("user " + id);
+        user.setUserType(userType);
+        return user;
+    }
+
+    private static PlayerStats stats(Integer playerId, int wins, int pointDifference) {
+        PlayerStats stats = new PlayerStats();
+        stats.setPlayerId(playerId);
+        stats.setMatchesPlayed(wins);
+        stats.setWins(wins);
+        stats.setPointDifference(pointDifference);
+        return stats;
+    }
+}
@@ -0,0 +1,184 @@
+package org.example.tennis_api.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.tennis_api.dto.user.UserImportResultDTO;
+import org.example.tennis_api.entity.User;
+import org.example.tennis_api.exceptions.TooManyRequestsException;
+import org.example.tennis_api.mapper.ModelMapperConfig;
+import org.example.tennis_api.mapper.UserMapper;
+import org.example.tennis_api.repository.UserRepository;
+import org.example.tennis_api.security.BoundedPasswordEncoder;
+import org.example.tennis_api.utilities.CollectionVersions;
+import org.example.tennis_api.utilities.CsvImportStrategy;
+import org.example.tennis_api.utilities.JsonImportStrategy;
+import org.example.tennis_api.utilities.LookupCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserImportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private BoundedPasswordEncoder passwordEncoder;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Captor
+    private ArgumentCaptor<List<User>> savedCaptor;
+
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        UserMapper userMapper = new UserMapper(new ModelMapperConfig().modelMapper());
+        userImportService = new UserImportService(userRepository, userMapper, passwordEncoder, transactionManager, new CollectionVersions(),
+                new LookupCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry()), 2);
+        when(passwordEncoder.parallelism()).thenReturn(2);
+        when(passwordEncoder.encodeAsync(anyString()))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture("hashed:" + invocation.getArgument(0)));
+        when(userRepository.findByUsernameInOrNameIn(anyCollection(), anyCollection())).thenReturn(Collections.emptyList());
+    }
+
+    @Test
+    void importCsvReportsRowErrorsAndKeepsGoing() throws Exception {
+        User existing = new User();
+        existing.setUsername("taken");
+        existing.setName("Taken Name");
+        when(userRepository.findByUsernameInOrNameIn(anyCollection(), anyCollection())).thenReturn(List.of(existing));
+
+        String csv = """
+                username,password,email,name,userType
+                alice,secret,alice@example.com,"Smith, Alice",player
+                bob,,bob@example.com,Bob,player
+                taken,secret,taken@example.com,Someone,referee
+                alice,secret,other@example.com,Other Alice,player
+                carol,secret,carol@example.com,Carol,player
+                """;
+
+        UserImportResultDTO result = userImportService.importUsers(stream(csv), new CsvImportStrategy());
+
+        assertEquals(2, result.getImported());
+        assertEquals(List.of(2, 3, 4), result.getErrors().stream().map(error -> error.getRow()).toList());
+        assertEquals("Username already exists.", result.getErrors().get(1).getMessage());
+
+        verify(userRepository, times(2)).saveAll(savedCaptor.capture());
+        List<User> users = savedCaptor.getAllValues().stream().flatMap(List::stream).toList();
+        assertEquals(List.of("Smith, Alice", "Carol"), users.stream().map(User::getName).toList());
+        assertEquals("hashed:secret", users.getFirst().getPassword());
+        assertEquals("NONE", users.getFirst().getTournamentRegistrationStatus());
+        assertFalse(users.getFirst().getIsRegisteredInTournament());
+        verify(userRepository, never()).findByUsername(anyString());
+    }
+
+    @Test
+    void importJsonChecksDuplicatesOncePerChunk() throws Exception {
+        String json = """
+                [
+                  {"username": "u1", "password": "p", "email": "u1@example.com", "name": "U1", "userType": "player"},
+                  {"username": "u2", "password": "p", "email": "u2@example.com", "name": "U2", "userType": "player"},
+                  {"username": "u3", "password": "p", "email": "u3@example.com", "name": "U3", "userType": "coach"},
+                  {"username": "u4", "password": "p", "email": "u4@example.com", "name": "U4", "isRegisteredInTournament": "maybe"}
+                ]
+                """;
+
+        UserImportResultDTO result = userImportService.importUsers(stream(json), new JsonImportStrategy());
+
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getErrors().size());
+        verify(userRepository, times(1)).findByUsernameInOrNameIn(anyCollection(), anyCollection());
+        verify(passwordEncoder, times(2)).encodeAsync("p");
+    }
+
+    @Test
+    void importRetriesHashesTheSharedPoolShed() throws Exception {
+        when(passwordEncoder.encodeAsync(anyString()))
+                .thenThrow(new TooManyRequestsException("busy", Duration.ZERO))
+                .thenAnswer(invocation -> CompletableFuture.completedFuture("hashed:" + invocation.getArgument(0)));
+
+        String csv = """
+                username,password,email,name,userType
+                first,one,first@example.com,First,player
+                second,two,second@example.com,Second,player
+                """;
+
+        UserImportResultDTO result = userImportService.importUsers(stream(csv), new CsvImportStrategy());
+
+        assertEquals(2, result.getImported());
+        assertTrue(result.getErrors().isEmpty());
+        verify(passwordEncoder, times(2)).encodeAsync("one");
+    }
+
+    @Test
+    void importReportsRowsTheSharedPoolKeepsShedding() throws Exception {
+        when(passwordEncoder.encodeAsync("doomed")).thenThrow(new TooManyRequestsException("busy", Duration.ZERO));
+
+        String csv = """
+                username,password,email,name,userType
+                shed,doomed,shed@example.com,Shed,player
+                kept,secret,kept@example.com,Kept,player
+                """;
+
+        UserImportResultDTO result = userImportService.importUsers(stream(csv), new CsvImportStrategy());
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getErrors().size());
+        assertEquals("shed", result.getErrors().getFirst().getUsername());
+        verify(userRepository).saveAll(savedCaptor.capture());
+        assertEquals(List.of("kept"), savedCaptor.getValue().stream().map(User::getUsername).toList());
+    }
+
+    @Test
+    void importFallsBackToSingleRowsWhenBatchConflicts() throws Exception {
+        when(userRepository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("duplicate key"));
+        when(userRepository.save(any(User.class))).thenAnswer(invocation -> {
+            User user = invocation.getArgument(0);
+            if (user.getUsername().equals("racer")) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            return user;
+        });
+
+        String csv = """
+                username,password,email,name,userType
+                racer,secret,racer@example.com,Racer,player
+                calm,secret,calm@example.com,Calm,player
+                """;
+
+        UserImportResultDTO result = userImportService.importUsers(stream(csv), new CsvImportStrategy());
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getErrors().size());
+        assertEquals("racer", result.getErrors().getFirst().getUsername());
+    }
+
+    @Test
+    void importRejectsMalformedJson() {
+        assertThrows(IllegalArgumentException.class,
+                () -> userImportService.importUsers(stream("{\"username\": \"u1\"}"), new JsonImportStrategy()));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,19 +1,33 @@
 package org.example.tennis_api.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.example.tennis_api.dto.user.UserDTO;
 import org.example.tennis_api.dto.user.UserSignInDTO;
 import org.example.tennis_api.dto.user.UserSignUpDTO;
 import org.example.tennis_api.dto.user.UserUpdateCredentialsDTO;
 import org.example.tennis_api.entity.User;
+import org.example.tennis_api.exceptions.TooManyRequestsException;
 import org.example.tennis_api.mapper.UserMapper;
 import org.example.tennis_api.repository.UserRepository;
+import org.example.tennis_api.security.LoginThrottle;
+import org.example.tennis_api.security.PrincipalCache;
+import org.example.tennis_api.utilities.CollectionVersions;
+import org.example.tennis_api.utilities.LookupCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -21,6 +35,8 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -33,11 +49,26 @@ class UserServiceImplTest {
     private UserMapper userMapper;
 
     @Mock
-    private EmailService emailService;
+    private NotificationOutboxService notificationOutboxService;
 
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private PrincipalCache principalCache;
+
+    @Mock
+    private LeaderboardService leaderboardService;
+
+    @Mock
+    private CollectionVersions collectionVersions;
+
+    @Spy
+    private LookupCache lookupCache = new LookupCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @Spy
+    private LoginThrottle loginThrottle = new LoginThrottle(3, Duration.ofMinutes(1));
+
     @InjectMocks
     private UserServiceImpl userService;
 
@@ -74,6 +105,56 @@ class UserServiceImplTest {
         assertNotNull(result);
     }
 
+    @Test
+    void repeatedFailedLoginsAreRefusedBeforeHashing() {
+        UserSignInDTO signInDTO = new UserSignInDTO("username", "wrong");
+        User user = new User();
+        user.setPassword("encodedPassword");
+        when(userRepository.findByUsername("username")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("wrong", "encodedPassword")).thenReturn(false);
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(IllegalArgumentException.class, () -> userService.loginUser(signInDTO));
+        }
+        assertThrows(TooManyRequestsException.class, () -> userService.loginUser(signInDTO));
+
+        verify(passwordEncoder, times(3)).matches("wrong", "encodedPassword");
+    }
+
+    @Test
+    void loginRehashesWhenTheCostFactorWasRaised() {
+        UserSignInDTO signInDTO = new UserSignInDTO("username", "password");
+        User user = new User();
+        user.setId(1);
+        user.setPassword("weakPassword");
+        when(userRepository.findByUsername("username")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("password", "weakPassword")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("weakPassword")).thenReturn(true);
+        when(passwordEncoder.encode("password")).thenReturn("strongPassword");
+
+        User result = userService.loginUser(signInDTO);
+
+        assertEquals("strongPassword", result.getPassword());
+        verify(userRepository).save(user);
+        verify(collectionVersions).bump(CollectionVersions.USERS);
+    }
+
+    @Test
+    void shedRehashStillLogsIn() {
+        UserSignInDTO signInDTO = new UserSignInDTO("username", "password");
+        User user = new User();
+        user.setPassword("weakPassword");
+        when(userRepository.findByUsername("username")).thenReturn(Optional.of(user));
+        when(passwordEncoder.matches("password", "weakPassword")).thenReturn(true);
+        when(passwordEncoder.upgradeEncoding("weakPassword")).thenReturn(true);
+        when(passwordEncoder.encode("password")).thenThrow(new TooManyRequestsException("busy", Duration.ofSeconds(1)));
+
+        User result = userService.loginUser(signInDTO);
+
+        assertEquals("weakPassword", result.getPassword());
+        verify(userRepository, times(0)).save(any());
+    }
+
     @Test
     void updateUserCredentials() {
         UserUpdateCredentialsDTO updateDTO = new UserUpdateCredentialsDTO("newUsername", "newName", "email@example.com", "newPassword", "oldPassword");
@@ -184,9 +265,9 @@ class UserServiceImplTest {
         assertEquals("PENDING", result.getTournamentRegistrationStatus());
         assertFalse(result.getIsRegisteredInTournament());
         verify(userRepository).save(user);
-        verify(emailService).notifyAdmins(eq("New Tournament Registration Request"),
-                contains("A new tournament registration request has been received from Test User (testuser)"),
-                eq(Arrays.asList("admin1@example.com", "admin2@example.com")));
+        verify(notificationOutboxService).enqueueAll(eq(Arrays.asList("admin1@example.com", "admin2@example.com")),
+                eq("New Tournament Registration Request"),
+                contains("A new tournament registration request has been received from Test User (testuser)"));
     }
 
     @Test
@@ -232,15 +313,179 @@ class UserServiceImplTest {
         verify(userRepository).save(existingUser);
     }
 
+    @Test
+    void updateUserKeepsTheStoredHashWhenItIsSentBack() {
+        UserDTO userDTO = new UserDTO("username", "encodedPassword", "new@example.com", "name", "player", true, "PENDING");
+        User existingUser = new User();
+        existingUser.setId(1);
+        existingUser.setPassword("encodedPassword");
+        when(userRepository.findById(1)).thenReturn(Optional.of(existingUser));
+        when(userRepository.findByUsername("username")).thenReturn(Optional.of(existingUser));
+        when(userRepository.findByName("name")).thenReturn(Optional.of(existingUser));
+        when(userRepository.save(existingUser)).thenReturn(existingUser);
+
+        User result = userService.updateUser(userDTO, 1);
+
+        assertEquals("encodedPassword", result.getPassword());
+        assertEquals("new@example.com", result.getEmail());
+        verify(passwordEncoder, times(0)).encode(any());
+    }
+
+    @Test
+    void patchUserWritesOnlySuppliedFieldsWithoutHashing() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setEmail("new@example.com");
+        userDTO.setTournamentRegistrationStatus("ACCEPTED");
+        User existingUser = patchTarget();
+        when(userRepository.findById(1)).thenReturn(Optional.of(existingUser));
+        when(userRepository.save(existingUser)).thenReturn(existingUser);
+
+        User result = userService.patchUser(userDTO, 1);
+
+        assertEquals("new@example.com", result.getEmail());
+        assertEquals("ACCEPTED", result.getTournamentRegistrationStatus());
+        assertEquals("username", result.getUsername());
+        assertEquals("encodedPassword", result.getPassword());
+        assertTrue(result.getIsRegisteredInTournament());
+        verify(passwordEncoder, times(0)).encode(any());
+        verify(userRepository, times(0)).findByUsername(any());
+        verify(principalCache).invalidate(1);
+    }
+
+    @Test
+    void patchUserHashesASuppliedPassword() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setPassword("newPassword");
+        User existingUser = patchTarget();
+        when(userRepository.findById(1)).thenReturn(Optional.of(existingUser));
+        when(passwordEncoder.encode("newPassword")).thenReturn("encodedNewPassword");
+        when(userRepository.save(existingUser)).thenReturn(existingUser);
+
+        User result = userService.patchUser(userDTO, 1);
+
+        assertEquals("encodedNewPassword", result.getPassword());
+        verify(passwordEncoder, times(1)).encode("newPassword");
+    }
+
+    @Test
+    void patchUserWithoutChangesDoesNotSave() {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setEmail("email@example.com");
+        User existingUser = patchTarget();
+        when(userRepository.findById(1)).thenReturn(Optional.of(existingUser));
+
+        User result = userService.patchUser(userDTO, 1);
+
+        assertSame(existingUser, result);
+        verify(userRepository, times(0)).save(any());
+        verify(collectionVersions, times(0)).bump(any());
+    }
+
+    @Test
+    void patchUserRejectsATakenUsernameAndBlankFields() {
+        User existingUser = patchTarget();
+        User otherUser = new User();
+        otherUser.setId(2);
+        when(userRepository.findById(1)).thenReturn(Optional.of(existingUser));
+        when(userRepository.findByUsername("taken")).thenReturn(Optional.of(otherUser));
+        UserDTO takenUsername = new UserDTO();
+        takenUsername.setUsername("taken");
+        UserDTO blankName = new UserDTO();
+        blankName.setName(" ");
+
+        assertThrows(IllegalArgumentException.class, () -> userService.patchUser(takenUsername, 1));
+        assertThrows(IllegalArgumentException.class, () -> userService.patchUser(blankName, 1));
+        verify(userRepository, times(0)).save(any());
+    }
+
+    private static User patchTarget() {
+        User user = new User();
+        user.setId(1);
+        user.setUsername("username");
+        user.setName("name");
+        user.setEmail("email@example.com");
+        user.setPassword("encodedPassword");
+        user.setUserType("player");
+        user.setIsRegisteredInTournament(true);
+        user.setTournamentRegistrationStatus("PENDING");
+        return user;
+    }
+
     @Test
     void deleteUser() {
         when(userRepository.existsById(1)).thenReturn(true);
 
         userService.deleteUser(1);
 
+        verify(leaderboardService).removePlayer(1);
         verify(userRepository).deleteById(1);
     }
 
+    @Test
+    void updateUserInvalidatesCachedPrincipal() {
+        UserDTO userDTO = new UserDTO("username", "password", "email@example.com", "name", "referee", false, "NONE");
+        User existingUser = new User();
+        existingUser.setId(1);
+        when(userRepository.findById(1)).thenReturn(Optional.of(existingUser));
+        when(userRepository.findByUsername("username")).thenReturn(Optional.empty());
+        when(userRepository.findByName("name")).thenReturn(Optional.empty());
+        when(userRepository.save(existingUser)).thenReturn(existingUser);
+
+        userService.updateUser(userDTO, 1);
+
+        verify(principalCache).invalidate(1);
+        verify(collectionVersions).bump(CollectionVersions.USERS, CollectionVersions.MATCHES);
+    }
+
+    @Test
+    void roleListsAreCachedUntilARoleChange() {
+        UserDTO userDTO = new UserDTO("username", "password", "email@example.com", "name", "referee", false, "NONE");
+        User existingUser = new User();
+        existingUser.setId(1);
+        existingUser.setUserType("player");
+        when(userRepository.findByUserType(anyString())).thenReturn(Collections.singletonList(existingUser));
+        when(userRepository.findById(1)).thenReturn(Optional.of(existingUser));
+        when(userRepository.findByUsername("username")).thenReturn(Optional.empty());
+        when(userRepository.findByName("name")).thenReturn(Optional.empty());
+        when(userRepository.save(existingUser)).thenReturn(existingUser);
+
+        userService.findUserByRole("player");
+        userService.findUserByRole("referee");
+        userService.findUserByRole("player");
+        userService.updateUser(userDTO, 1);
+        userService.findUserByRole("player");
+        userService.findUserByRole("referee");
+
+        verify(lookupCache).evictUser(1, "player", "referee");
+        verify(userRepository, times(2)).findByUserType("player");
+        verify(userRepository, times(2)).findByUserType("referee");
+    }
+
+    @Test
+    void findUserByIdIsServedFromCacheUntilDeleted() {
+        User user = new User();
+        user.setId(1);
+        when(userRepository.findById(1)).thenReturn(Optional.of(user));
+        when(userRepository.existsById(1)).thenReturn(true);
+
+        userService.findUserById(1);
+        userService.findUserById(1);
+        verify(userRepository, times(1)).findById(1);
+
+        userService.deleteUser(1);
+        userService.findUserById(1);
+        verify(userRepository, times(2)).findById(1);
+    }
+
+    @Test
+    void deleteUserInvalidatesCachedPrincipal() {
+        when(userRepository.existsById(1)).thenReturn(true);
+
+        userService.deleteUser(1);
+
+        verify(principalCache).invalidate(1);
+    }
+
     @Test
     void filterUsers() {
         User user = new User();
@@ -249,14 +494,32 @@ class UserServiceImplTest {
         user.setUsername("TestUsername");
         user.setIsRegisteredInTournament(true);
 
-        List<User> users = Collections.singletonList(user);
-        when(userRepository.findByUserType("player")).thenReturn(users);
+        when(userRepository.findAll(ArgumentMatchers.<Specification<User>>any(), eq(Sort.by("id")))).thenReturn(Collections.singletonList(user));
 
-        List<User> result = userService.filterUsers("name", "username", true);
+        List<User> result = userService.filterUsers("name", "username", true, null, null);
 
         assertNotNull(result);
         assertEquals(1, result.size());
         assertEquals(user, result.getFirst());
+        verify(userRepository, never()).findAll(ArgumentMatchers.<Specification<User>>any(), any(Pageable.class));
+    }
+
+    @Test
+    void filterUsersPaged() {
+        User user = new User();
+        user.setId(1);
+
+        when(userRepository.findAll(ArgumentMatchers.<Specification<User>>any(), any(Pageable.class))).thenReturn(new PageImpl<>(Collections.singletonList(user)));
+
+        List<User> result = userService.filterUsers(null, null, null, 2, null);
+
+        assertEquals(1, result.size());
+        verify(userRepository).findAll(ArgumentMatchers.<Specification<User>>any(), eq(PageRequest.of(2, 50, Sort.by("id"))));
+    }
+
+    @Test
+    void filterUsersRejectsOversizedPage() {
+        assertThrows(IllegalArgumentException.class, () -> userService.filterUsers(null, null, null, 0, 1000));
     }
 
     @Test
@@ -279,7 +542,7 @@ class UserServiceImplTest {
         assertTrue(result.getIsRegisteredInTournament());
         assertEquals("ACCEPTED", result.getTournamentRegistrationStatus());
         verify(userRepository).save(user);
-        verify(emailService).notifyUser(eq("testuser@example.com"), eq("Tournament Registration Accepted"),
+        verify(notificationOutboxService).enqueue(eq("testuser@example.com"), eq("Tournament Registration Accepted"),
                 contains("Your registration for the tournament has been accepted"));
     }
 
@@ -301,7 +564,7 @@ class UserServiceImplTest {
         assertFalse(result.getIsRegisteredInTournament());
         assertEquals("REJECTED", result.getTournamentRegistrationStatus());
         verify(userRepository).save(user);
-        verify(emailService).notifyUser(eq("testuser@example.com"), eq("Tournament Registration Rejected"),
+        verify(notificationOutboxService).enqueue(eq("testuser@example.com"), eq("Tournament Registration Rejected"),
                 contains("Your registration for the tournament has been rejected"));
     }
 
@@ -0,0 +1,41 @@
+package org.example.tennis_api.utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingIndexTest {
+
+    private static final LocalDate DATE = LocalDate.of(2030, 1, 1);
+    private static final LocalTime TIME = LocalTime.of(10, 0);
+
+    @Test
+    void clashesAreReportedPerParticipantAndCourt() {
+        BookingIndex bookings = new BookingIndex();
+        bookings.add(1, DATE, TIME, "Court 1", 10, 20, 21);
+
+        assertEquals("Referee 10 is already booked on 2030-01-01 at 10:00.", bookings.findConflict(null, DATE, TIME, "Court 2", 10, 30, 31));
+        assertEquals("Player 21 is already booked on 2030-01-01 at 10:00.", bookings.findConflict(null, DATE, TIME, "Court 2", 11, 30, 21));
+        assertEquals("Location 'COURT 1' is already booked on 2030-01-01 at 10:00.", bookings.findConflict(null, DATE, TIME, "COURT 1", 11, 30, 31));
+        assertNull(bookings.findConflict(null, DATE, TIME, "Court 2", 11, 30, 31));
+        assertNull(bookings.findConflict(null, DATE, TIME.plusHours(1), "Court 1", 10, 20, 21));
+        //a match never clashes with itself
+        assertNull(bookings.findConflict(1, DATE, TIME, "Court 1", 10, 20, 21));
+    }
+
+    @Test
+    void everyBookingIsFoundAmongManyOthers() {
+        BookingIndex bookings = new BookingIndex();
+        for (int i = 0; i < 10_000; i++) {
+            bookings.add(i, DATE.plusDays(i % 365), LocalTime.of(8 + i % 10, 0), "Court " + i % 50, 100_000 + i % 200, i, null);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals("Player " + i + " is already booked on " + DATE.plusDays(i % 365) + " at " + LocalTime.of(8 + i % 10, 0) + ".",
+                    bookings.findConflict(null, DATE.plusDays(i % 365), LocalTime.of(8 + i % 10, 0), "Court x", null, i, null));
+        }
+    }
+}
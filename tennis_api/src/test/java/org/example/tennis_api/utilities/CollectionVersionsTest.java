@@ -0,0 +1,64 @@
+package org.example.tennis_api.utilities;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CollectionVersionsTest {
+
+    private final CollectionVersions collectionVersions = new CollectionVersions();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void bumpChangesOnlyTheAffectedEtags() {
+        String matches = collectionVersions.current(CollectionVersions.MATCHES).etag();
+        String users = collectionVersions.current(CollectionVersions.USERS).etag();
+
+        collectionVersions.bump(CollectionVersions.MATCHES);
+
+        assertNotEquals(matches, collectionVersions.current(CollectionVersions.MATCHES).etag());
+        assertEquals(users, collectionVersions.current(CollectionVersions.USERS).etag());
+        assertTrue(collectionVersions.current(CollectionVersions.USERS).etag().matches("\"[0-9a-z]+-\\d+\""));
+    }
+
+    @Test
+    void bumpInsideTransactionWaitsForCommit() {
+        String before = collectionVersions.current(CollectionVersions.MATCHES, CollectionVersions.USERS).etag();
+        TransactionSynchronizationManager.initSynchronization();
+
+        collectionVersions.bump(CollectionVersions.USERS);
+        assertEquals(before, collectionVersions.current(CollectionVersions.MATCHES, CollectionVersions.USERS).etag());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertNotEquals(before, collectionVersions.current(CollectionVersions.MATCHES, CollectionVersions.USERS).etag());
+    }
+
+    @Test
+    void everyBumpMovesLastModified() {
+        collectionVersions.current(CollectionVersions.MATCHES);
+        long before = collectionVersions.current(CollectionVersions.MATCHES, CollectionVersions.USERS).lastModified();
+
+        collectionVersions.bump(CollectionVersions.USERS);
+        long afterFirst = collectionVersions.current(CollectionVersions.MATCHES, CollectionVersions.USERS).lastModified();
+        collectionVersions.bump(CollectionVersions.MATCHES);
+        long afterSecond = collectionVersions.current(CollectionVersions.MATCHES, CollectionVersions.USERS).lastModified();
+
+        assertTrue(afterFirst >= before + 1000);
+        assertTrue(afterSecond >= afterFirst + 1000);
+    }
+
+    @Test
+    void etagsDifferBetweenInstances() {
+        assertNotEquals(collectionVersions.current(CollectionVersions.MATCHES).etag(),
+                new CollectionVersions().current(CollectionVersions.MATCHES).etag());
+    }
+}
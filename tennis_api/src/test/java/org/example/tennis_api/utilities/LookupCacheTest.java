@@ -0,0 +1,94 @@
+package org.example.tennis_api.utilities;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.tennis_api.entity.Match;
+import org.example.tennis_api.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LookupCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LookupCache lookupCache;
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lookupCache = new LookupCache(100, Duration.ofMinutes(1), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void hitsAndMissesAreRecorded() {
+        lookupCache.match(1, this::loadMatch);
+        lookupCache.match(1, this::loadMatch);
+        lookupCache.match(2, this::loadMatch);
+
+        assertEquals(2, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "lookup.matches").tag("result", "hit").functionCounter().count());
+        assertEquals(2.0, meterRegistry.get("cache.gets").tag("cache", "lookup.matches").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void userEvictionDropsListsAndMatchesItAppearsIn() {
+        lookupCache.match(1, this::loadMatch);
+        lookupCache.match(2, id -> match(id, user(9)));
+        lookupCache.usersByRole("referee", role -> List.of(user(7)));
+        lookupCache.usersByRole("administrator", role -> List.of(user(8)));
+
+        lookupCache.evictUser(7);
+
+        lookupCache.match(1, this::loadMatch);
+        lookupCache.match(2, this::loadMatch);
+        assertEquals(2, loads.get());
+        assertEquals(70, lookupCache.usersByRole("referee", role -> List.of(user(70))).getFirst().getId());
+        assertEquals(8, lookupCache.usersByRole("administrator", role -> List.of(user(80))).getFirst().getId());
+    }
+
+    @Test
+    void evictionIsRepeatedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        lookupCache.evictMatch(1);
+        //a concurrent reader still sees the committed row and caches it
+        lookupCache.match(1, this::loadMatch);
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        lookupCache.match(1, this::loadMatch);
+
+        assertEquals(2, loads.get());
+    }
+
+    private Match loadMatch(Integer id) {
+        loads.incrementAndGet();
+        return match(id, user(7));
+    }
+
+    private static Match match(Integer id, User referee) {
+        Match match = new Match();
+        match.setId(id);
+        match.setReferee(referee);
+        return match;
+    }
+
+    private static User user(Integer id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
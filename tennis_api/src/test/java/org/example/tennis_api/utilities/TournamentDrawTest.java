@@ -0,0 +1,122 @@
+package org.example.tennis_api.utilities;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TournamentDrawTest {
+
+    private static final LocalDate START = LocalDate.of(2030, 6, 1);
+    private static final LocalTime FIRST_MATCH = LocalTime.of(9, 0);
+
+    @Test
+    void knockoutGivesByesToTopSeedsAndKeepsThemApart() {
+        List<List<TournamentDraw.Pairing>> rounds = TournamentDraw.knockout("Open", List.of(101, 102, 103, 104, 105, 106));
+
+        assertEquals(List.of(2, 2, 1), rounds.stream().map(List::size).toList());
+        assertEquals(new TournamentDraw.Pairing("Open - Quarterfinal - Match 1", 104, 105), rounds.get(0).get(0));
+        assertEquals(new TournamentDraw.Pairing("Open - Quarterfinal - Match 2", 103, 106), rounds.get(0).get(1));
+        assertEquals(new TournamentDraw.Pairing("Open - Semifinal - Match 1", 101, null), rounds.get(1).get(0));
+        assertEquals(new TournamentDraw.Pairing("Open - Semifinal - Match 2", 102, null), rounds.get(1).get(1));
+        assertEquals(new TournamentDraw.Pairing("Open - Final", null, null), rounds.get(2).getFirst());
+    }
+
+    @Test
+    void roundRobinPlaysEveryGroupPairOnce() {
+        List<Integer> players = IntStream.rangeClosed(1, 10).boxed().toList();
+
+        List<List<TournamentDraw.Pairing>> rounds = TournamentDraw.roundRobin("League", players, 4);
+
+        Set<Set<Integer>> pairs = new HashSet<>();
+        for (List<TournamentDraw.Pairing> round : rounds) {
+            Set<Integer> playing = new HashSet<>();
+            for (TournamentDraw.Pairing pairing : round) {
+                assertTrue(playing.add(pairing.player1()) && playing.add(pairing.player2()), round::toString);
+                assertTrue(pairs.add(Set.of(pairing.player1(), pairing.player2())));
+            }
+        }
+        //snake seeding gives groups of 3, 3 and 4
+        assertEquals(3 + 3 + 6, pairs.size());
+        assertTrue(pairs.contains(Set.of(1, 6)));
+        assertTrue(pairs.contains(Set.of(3, 4)));
+        assertTrue(rounds.getFirst().getFirst().name().startsWith("League - Group A - Round 1"));
+    }
+
+    @Test
+    void largeRoundRobinPairedInParallelKeepsGroupOrder() {
+        List<Integer> players = IntStream.rangeClosed(1, 1024).boxed().toList();
+
+        List<List<TournamentDraw.Pairing>> rounds = TournamentDraw.roundRobin("League", players, 32);
+
+        Set<Set<Integer>> pairs = new HashSet<>();
+        rounds.forEach(round -> round.forEach(pairing -> assertTrue(pairs.add(Set.of(pairing.player1(), pairing.player2())))));
+        assertEquals(32 * 32 * 31 / 2, pairs.size());
+        List<String> firstRoundGroups = rounds.getFirst().stream()
+                .map(pairing -> pairing.name().split(" - ")[1])
+                .distinct()
+                .toList();
+        assertEquals(IntStream.range(0, 32).mapToObj(g -> "Group " + (g < 26 ? String.valueOf((char) ('A' + g)) : g + 1)).toList(),
+                firstRoundGroups);
+        assertEquals(rounds, TournamentDraw.roundRobin("League", players, 32));
+    }
+
+    @Test
+    void schedulerNeverDoubleBooksAndKeepsRoundsInOrder() {
+        SlotScheduler scheduler = new SlotScheduler(START, FIRST_MATCH, 60, 4, List.of("Court 1", "Court 2"), List.of(900, 901, 902));
+        //an existing match already holds court 1 and player 1 in the first slot
+        scheduler.reserve(START, FIRST_MATCH, "court 1", List.of(1, 50));
+
+        List<SlotScheduler.Booking> first = scheduler.scheduleRound(List.of(
+                new TournamentDraw.Pairing("a", 1, 2), new TournamentDraw.Pairing("b", 3, 4), new TournamentDraw.Pairing("c", 5, 6)));
+        List<SlotScheduler.Booking> second = scheduler.scheduleRound(List.of(new TournamentDraw.Pairing("d", null, null)));
+
+        assertEquals(LocalTime.of(10, 0), first.get(0).time());
+        assertEquals(FIRST_MATCH, first.get(1).time());
+        assertEquals("Court 2", first.get(1).court());
+        assertEquals(LocalTime.of(10, 0), first.get(2).time());
+        assertEquals(LocalTime.of(11, 0), second.getFirst().time());
+        assertNoDoubleBooking(Stream.concat(first.stream(), second.stream()).toList());
+    }
+
+    @Test
+    void thousandPlayerDrawsNeverDoubleBook() {
+        List<Integer> players = IntStream.rangeClosed(1, 1000).boxed().toList();
+        List<Integer> referees = IntStream.rangeClosed(2001, 2040).boxed().toList();
+        List<String> courts = IntStream.rangeClosed(1, 16).mapToObj(i -> "Court " + i).toList();
+
+        SlotScheduler knockout = new SlotScheduler(START, FIRST_MATCH, 90, 8, courts, referees);
+        List<SlotScheduler.Booking> bookings = TournamentDraw.knockout("Cup", players).stream()
+                .flatMap(round -> knockout.scheduleRound(round).stream()).toList();
+        SlotScheduler groups = new SlotScheduler(START, FIRST_MATCH, 90, 8, courts, referees);
+        List<SlotScheduler.Booking> groupBookings = TournamentDraw.roundRobin("League", players, 5).stream()
+                .flatMap(round -> groups.scheduleRound(round).stream()).toList();
+
+        assertEquals(999, bookings.size());
+        assertEquals(200 * 10, groupBookings.size());
+        assertNoDoubleBooking(bookings);
+        assertNoDoubleBooking(groupBookings);
+    }
+
+    private static void assertNoDoubleBooking(List<SlotScheduler.Booking> bookings) {
+        Map<LocalDateTime, Set<Object>> taken = new HashMap<>();
+        for (SlotScheduler.Booking booking : bookings) {
+            Set<Object> slot = taken.computeIfAbsent(LocalDateTime.of(booking.date(), booking.time()), s -> new HashSet<>());
+            assertTrue(slot.add(booking.court()), "court booked twice: " + booking);
+            assertTrue(slot.add(booking.refereeId()), "referee booked twice: " + booking);
+            Stream.of(booking.pairing().player1(), booking.pairing().player2())
+                    .filter(java.util.Objects::nonNull)
+                    .forEach(player -> assertTrue(slot.add(player), "player booked twice: " + booking));
+        }
+    }
+}